@@ -221,6 +221,32 @@ public class ASTest
                    assertEquals("true", sameElements(empty, AnalyzeSolution.getConnections(p, i, j)));
     }
     
+    @Test
+    public void testnextDot()
+    {
+        for (int i = 0; i <= p.size(); i++)
+            for (int j = 0; j <= p.size(); j++)
+            {
+                assertEquals(0, AnalyzeSolution.degree(p, i, j));
+                assertEquals(-1, AnalyzeSolution.nextDot(p, i, j, -1));
+            }
+        
+        p.horizontalClick(3, 1);
+        p.verticalClick(2, 1);
+        assertEquals(2, AnalyzeSolution.degree(p, 3, 1));
+        assertEquals(1, AnalyzeSolution.degree(p, 3, 2));
+        assertEquals(1, AnalyzeSolution.degree(p, 2, 1));
+        assertEquals(3*4+2, AnalyzeSolution.nextDot(p, 3, 1, -1));
+        assertEquals(2*4+1, AnalyzeSolution.nextDot(p, 3, 1, 3*4+2));
+        assertEquals(3*4+2, AnalyzeSolution.nextDot(p, 3, 1, 2*4+1));
+        assertEquals(3*4+1, AnalyzeSolution.nextDot(p, 3, 2, -1));
+        assertEquals(-1, AnalyzeSolution.nextDot(p, 3, 2, 3*4+1));
+        
+        assertEquals(0, AnalyzeSolution.degree(p, -1, 0));
+        assertEquals(-1, AnalyzeSolution.nextDot(p, 4, 0, -1));
+        assertEquals(-1, AnalyzeSolution.nextDot(p, 0, -1, -1));
+    }
+    
     @Test
     public void testtracePath()
     {
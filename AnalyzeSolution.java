@@ -23,22 +23,7 @@ public class AnalyzeSolution
      */
     public static int linesAroundSquare(Puzzle p, int r, int c)
     {
-        int NoOfLines = 0; 
-        if (r >= 0 && c >= 0 && c < p.size() && r < p.size()){
-            for (int i = c; i < c+2; i++){
-                if (p.getVertical()[r][i] == true){
-                  NoOfLines += 1;
-                }
-            } 
-            for (int j = r; j < r+2; j++){
-                if (p.getHorizontal()[j][c] == true){
-                  NoOfLines += 1;
-                }
-            }
-            return NoOfLines;
-        } else{
-            return 0;
-        }
+        return p.linesAround(r, c);
     }
     
     /**
@@ -49,12 +34,9 @@ public class AnalyzeSolution
     public static ArrayList<int[]> badSquares(Puzzle p)
     {
         ArrayList<int[]> badSQ = new ArrayList<int[]>();
-        for (int i = 0; i < p.size(); i++){
-            for (int j = 0; j < p.size(); j++){
-                if (p.getPuzzle()[i][j] != -1 && p.getPuzzle()[i][j] != linesAroundSquare(p, i, j)){
-                    badSQ.add(new int[] {i,j});
-                }
-            }
+        for (int i = 0; i < p.numBadSquares(); i++){
+            int sq = p.badSquare(i);
+            badSQ.add(new int[] {sq / p.size(), sq % p.size()});
         }
         return badSQ;
     }
@@ -69,16 +51,16 @@ public class AnalyzeSolution
     {
         ArrayList<int[]> connections = new ArrayList<>();
         if (r >= 0 && c >= 0 && r <= p.size() && c <= p.size()){
-            if (c >= 0 && c < p.size() && r>= 0 && r <= p.size() && p.getHorizontal()[r][c] == true){
+            if (c >= 0 && c < p.size() && r>= 0 && r <= p.size() && p.getHorizontal(r, c) == true){
                 connections.add(new int[] {r,c+1});
             }   
-            if (c >= 0 && c <= p.size() && r >= 0 && r < p.size() && p.getVertical()[r][c] == true) {
+            if (c >= 0 && c <= p.size() && r >= 0 && r < p.size() && p.getVertical(r, c) == true) {
                 connections.add(new int[] {r+1,c});
             } 
-            if (r <= p.size() && r >= 0 && c > 0 && c <= p.size() && p.getHorizontal()[r][c-1] == true){
+            if (r <= p.size() && r >= 0 && c > 0 && c <= p.size() && p.getHorizontal(r, c-1) == true){
                 connections.add(new int[] {r,c-1});
             } 
-            if (c <= p.size() && c >= 0 && r > 0 && r <= p.size() && p.getVertical()[r-1][c] == true){
+            if (c <= p.size() && c >= 0 && r > 0 && r <= p.size() && p.getVertical(r-1, c) == true){
                 connections.add(new int[] {r-1,c});
             } 
             return connections;
@@ -87,6 +69,42 @@ public class AnalyzeSolution
         }
     }
 
+    /**
+     * Returns the number of line segments meeting at Dot r,c in p.
+     * Returns 0 if the indices are illegal.
+     */
+    public static int degree(Puzzle p, int r, int c)
+    {
+        return p.degree(r, c);
+    }
+
+    /**
+     * Returns the first dot connected by a single line segment to Dot r,c in p, other than prev,
+     * looking right, down, left and up in that order.
+     * Dots are packed into one int: Dot i,j is i*(p.size()+1)+j.
+     * Returns -1 if there is no such dot or the indices are illegal; prev may be -1 to accept any dot.
+     * Unlike getConnections, this creates no objects, so a path can be followed at no cost.
+     */
+    public static int nextDot(Puzzle p, int r, int c, int prev)
+    {
+        int width = p.size()+1;
+        if (r < 0 || c < 0 || r >= width || c >= width){
+            return -1;
+        }
+        int d = r*width + c;
+        if (p.getHorizontal(r, c) && d+1 != prev){
+            return d+1;
+        } else if (p.getVertical(r, c) && d+width != prev){
+            return d+width;
+        } else if (p.getHorizontal(r, c-1) && d-1 != prev){
+            return d-1;
+        } else if (p.getVertical(r-1, c) && d-width != prev){
+            return d-width;
+        } else {
+            return -1;
+        }
+    }
+
     /**
      * Returns an array of length 3 whose first element is the number of line segments in the puzzle p, 
      * and whose other elements are the indices of a dot on any one of those segments. 
@@ -98,7 +116,7 @@ public class AnalyzeSolution
         int[] indices = new int[] {0, 0};
         for (int i = 0; i <= p.size(); i++){
             for (int j = 0; j < p.size(); j++){
-                if (p.getHorizontal()[i][j] == true){
+                if (p.getHorizontal(i, j) == true){
                     totallines += 1;
                     indices[0] = i;
                     indices[1] = j;
@@ -107,7 +125,7 @@ public class AnalyzeSolution
         }
         for (int i = 0; i < p.size(); i++){
             for (int j = 0; j <= p.size(); j++){
-                if (p.getVertical()[i][j] == true){
+                if (p.getVertical(i, j) == true){
                     totallines += 1;
                     indices[0] = i;
                     indices[1] = j;
@@ -126,34 +144,29 @@ public class AnalyzeSolution
      */
     public static String tracePath(Puzzle p, int r, int c)
     {
+        int width = p.size()+1;
+        if (r < 0 || c < 0 || r >= width || c >= width){
+            return "No path";
+        }
+        int start = r*width + c;
         int length = 0;
-        int prev_r = r;
-        int curr_r = r; 
-        int prev_c = c;
-        int curr_c = c;
+        int prev = start;
+        int curr = start;
         do {
-            if (getConnections(p,curr_r,curr_c).size() >= 3){
+            int degree = degree(p, curr / width, curr % width);
+            if (degree >= 3){
                 return "Branching line"; 
-            } else if (getConnections(p,curr_r,curr_c).size() == 2){
-                if (getConnections(p, curr_r, curr_c).get(0)[0] != prev_r || getConnections(p, curr_r, curr_c).get(0)[1] != prev_c){
-                    length += 1;
-                    prev_r = curr_r;
-                    prev_c = curr_c;
-                    curr_r= getConnections(p,prev_r,prev_c).get(0)[0];
-                    curr_c = getConnections(p,prev_r,prev_c).get(0)[1];
-                } else {
-                    length += 1;
-                    prev_r = curr_r;
-                    prev_c = curr_c;
-                    curr_r= getConnections(p,prev_r,prev_c).get(1)[0];
-                    curr_c = getConnections(p,prev_r,prev_c).get(1)[1];
-                }
-            } else if (getConnections(p,curr_r,curr_c).size() == 1){
+            } else if (degree == 2){
+                int next = nextDot(p, curr / width, curr % width, prev);
+                length += 1;
+                prev = curr;
+                curr = next;
+            } else if (degree == 1){
                 return "Dangling end";
             } else{
                 return "No path";
             }
-        } while (curr_r != r || curr_c != c);
+        } while (curr != start);
         return ""+length;
     }
     
@@ -165,21 +178,13 @@ public class AnalyzeSolution
      */
     public static String finished(Puzzle p)
     {
-        int lines = lineSegments(p)[0];
-        int x = lineSegments(p)[1];
-        int y = lineSegments(p)[2];
-        if (badSquares(p).size() > 0){
+        if (p.numBadSquares() > 0){
             return "Wrong number";
-        } else if (tracePath(p, x, y) == "No path"){
-            return "Disconnected lines";
-        } else if (tracePath(p, x, y) == "Dangling end"){
-            return "Dangling end";
-        } else if (tracePath(p, x, y) == "Branching line"){
-            return "Branching line";
-        } else if (Integer.parseInt(tracePath(p,x,y)) != lines){
-            return "Disconnected lines";
-        } else {
+        } else if (p.isSingleLoop()){
             return "Finished";
+        } else {
+            // the full report is needed to tell which error the trace would meet first
+            return new SolutionReport(p).getMessage();
         }
     }
 }
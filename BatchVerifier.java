@@ -0,0 +1,214 @@
+/**
+ * BatchVerifier checks many submitted solutions against the puzzles of a Corpus.
+ * Each input line is a record: a puzzle's index in the corpus and an edge bitmap,
+ * separated by white space. Each output line is the puzzle index, a tab,
+ * and the verdict, which is the message from AnalyzeSolution.finished,
+ * or "Invalid record: ..." if the record cannot be read.
+ *
+ * The bitmap has one bit for each edge, numbered as in Puzzle, set iff the edge has a line.
+ * It is written in hex, the first digit holding edges 0-3 with edge 0 in its lowest bit;
+ * a size n puzzle has 2n(n+1) edges, always a multiple of 4, so it takes n(n+1)/2 digits.
+ *
+ * Records are read in chunks and checked in parallel, one chunk per task,
+ * with only a few chunks in flight at once, so memory use stays bounded however long the input;
+ * the verdicts are written in the same order as the records.
+ *
+ * @author Jaimin Kirankumar Kerai
+ * @version 1.0
+ */
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class BatchVerifier
+{
+    private static final int CHUNK = 256;    // the number of records checked by each task
+
+    private Corpus corpus;                    // the puzzles the records refer to
+    private int threads;                      // the number of worker threads
+    private ThreadLocal<Board> boards;        // the last puzzle used by each worker thread
+
+    /**
+     * The puzzle a worker thread checked last, kept so that it can be reused
+     * for the next record about the same puzzle.
+     */
+    private static class Board
+    {
+        int index = -1; // the index of the puzzle in the corpus
+        Puzzle p;       // the puzzle
+    }
+
+    /**
+     * Creates a verifier for records about the puzzles in corpus, using threads worker threads.
+     */
+    public BatchVerifier(Corpus corpus, int threads)
+    {
+        this.corpus = corpus;
+        this.threads = threads;
+        boards = ThreadLocal.withInitial(Board::new);
+    }
+
+    /**
+     * Creates a verifier for records about the puzzles in corpus, using one worker thread per core.
+     */
+    public BatchVerifier(Corpus corpus)
+    {
+        this(corpus, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Reads every record from in, and writes a verdict for each one to out.
+     * Blank lines are skipped. Returns the number of records checked.
+     */
+    public long verify(BufferedReader in, Writer out) throws IOException
+    {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        ArrayDeque<Future<String>> pending = new ArrayDeque<>();
+        long records = 0;
+        try {
+            List<String> chunk = new ArrayList<>(CHUNK);
+            String line;
+            while ((line = in.readLine()) != null){
+                if (line.trim().isEmpty()) continue;
+                chunk.add(line);
+                records += 1;
+                if (chunk.size() == CHUNK){
+                    submit(pool, pending, chunk, out);
+                    chunk = new ArrayList<>(CHUNK);
+                }
+            }
+            if (!chunk.isEmpty()){
+                submit(pool, pending, chunk, out);
+            }
+            while (!pending.isEmpty()){
+                out.write(next(pending));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        out.flush();
+        return records;
+    }
+
+    /**
+     * Replaces the solution of p with the lines in the hex edge bitmap,
+     * and returns the message from AnalyzeSolution.finished.
+     * Throws an IllegalArgumentException if the bitmap does not fit p.
+     */
+    public static String verify(Puzzle p, String bitmap)
+    {
+        p.clear();
+        int edges = p.numEdges();
+        int digits = edges / 4;
+        if (bitmap.length() != digits){
+            throw new IllegalArgumentException("expected " + digits + " hex digits for a size " + p.size()
+                                               + " puzzle, found " + bitmap.length());
+        }
+        for (int k = 0; k < digits; k++){
+            int digit = Character.digit(bitmap.charAt(k), 16);
+            if (digit < 0){
+                throw new IllegalArgumentException("'" + bitmap.charAt(k) + "' is not a hex digit");
+            }
+            for (int b = 0; b < 4; b++){
+                if ((digit >> b & 1) != 0) p.setEdge(4*k + b, Puzzle.LINE);
+            }
+        }
+        return AnalyzeSolution.finished(p);
+    }
+
+    /**
+     * Returns the hex edge bitmap of the lines in p's solution.
+     */
+    public static String encode(Puzzle p)
+    {
+        int edges = p.numEdges();
+        StringBuilder bitmap = new StringBuilder(edges / 4);
+        for (int k = 0; 4*k < edges; k++){
+            int digit = 0;
+            for (int b = 0; b < 4; b++){
+                if (p.getEdge(4*k + b) == Puzzle.LINE) digit |= 1 << b;
+            }
+            bitmap.append(Character.forDigit(digit, 16));
+        }
+        return bitmap.toString();
+    }
+
+    /**
+     * Starts checking chunk, first writing out the oldest verdicts if too many chunks are in flight.
+     */
+    private void submit(ExecutorService pool, ArrayDeque<Future<String>> pending, List<String> chunk, Writer out)
+        throws IOException
+    {
+        if (pending.size() >= 2*threads){
+            out.write(next(pending));
+        }
+        pending.add(pool.submit(() -> check(chunk)));
+    }
+
+    /**
+     * Waits for the oldest chunk in flight and returns its verdicts.
+     */
+    private String next(ArrayDeque<Future<String>> pending) throws IOException
+    {
+        try {
+            return pending.remove().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while verifying");
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * Returns the verdicts for the records in chunk, one per line.
+     */
+    private String check(List<String> chunk)
+    {
+        StringBuilder verdicts = new StringBuilder();
+        for (String record : chunk){
+            verdicts.append(check(record.trim())).append('\n');
+        }
+        return verdicts.toString();
+    }
+
+    /**
+     * Returns the verdict line for one record.
+     */
+    private String check(String record)
+    {
+        int split = 0;
+        while (split < record.length() && !Character.isWhitespace(record.charAt(split))) split++;
+        String id = record.substring(0, split);
+        if (split == record.length()){
+            return id + "\tInvalid record: expected a puzzle index and an edge bitmap";
+        }
+        int index;
+        try {
+            index = Integer.parseInt(id);
+        } catch (NumberFormatException e) {
+            index = -1;
+        }
+        if (index < 0 || index >= corpus.size()){
+            return id + "\tInvalid record: no puzzle " + id + " in the corpus";
+        }
+        Board board = boards.get();
+        if (board.index != index){
+            board.p = corpus.get(index);
+            board.index = index;
+        }
+        try {
+            return id + "\t" + verify(board.p, record.substring(split).trim());
+        } catch (IllegalArgumentException e) {
+            return id + "\tInvalid record: " + e.getMessage();
+        }
+    }
+}
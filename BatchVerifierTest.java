@@ -0,0 +1,117 @@
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+
+/**
+ * This class provides unit test cases for the BatchVerifier class.
+ * @author Jaimin Kirankumar Kerai
+ * @version 1.0
+ */
+public class BatchVerifierTest
+{
+    private File file;
+    private Corpus corpus;
+    private ArrayList<Puzzle> solved;
+
+    /**
+     * Sets up the test fixture.
+     *
+     * Called before every test case method.
+     */
+    @Before
+    public void setUp() throws IOException
+    {
+        file = File.createTempFile("corpus", ".slc");
+        ArrayList<Puzzle> puzzles = new ArrayList<>();
+        solved = new ArrayList<>();
+        for (String f : new String[] {"eg3_1.txt", "eg5_2.txt", "eg7_2.txt"})
+        {
+            puzzles.add(new Puzzle(f));
+            Puzzle p = new Puzzle(f);
+            new Search(p).solve();
+            solved.add(p);
+        }
+        Corpus.write(file.getPath(), puzzles);
+        corpus = Corpus.open(file.getPath());
+    }
+
+    /**
+     * Tears down the test fixture.
+     *
+     * Called after every test case method.
+     */
+    @After
+    public void tearDown()
+    {
+        file.delete();
+    }
+
+    @Test
+    public void testEncode()
+    {
+        for (Puzzle p : solved)
+        {
+            String bitmap = BatchVerifier.encode(p);
+            assertEquals(p.numEdges() / 4, bitmap.length());
+            Puzzle q = new Puzzle(p);
+            assertEquals("Finished", BatchVerifier.verify(q, bitmap));
+            assertEquals(bitmap, BatchVerifier.encode(q));
+        }
+        Puzzle p = new Puzzle("eg3_1.txt");
+        p.horizontalClick(0, 0);
+        p.verticalClick(2, 3);
+        assertEquals("Wrong number", BatchVerifier.verify(new Puzzle("eg3_1.txt"), BatchVerifier.encode(p)));
+    }
+
+    @Test
+    public void testBadBitmaps()
+    {
+        Puzzle p = new Puzzle("eg3_1.txt"); // 24 edges, so 6 digits
+        try {
+            BatchVerifier.verify(p, "00000");
+            fail();
+        } catch (IllegalArgumentException e) {}
+        try {
+            BatchVerifier.verify(p, "00000g");
+            fail();
+        } catch (IllegalArgumentException e) {}
+        p = new Puzzle("eg2_1.txt"); // 12 edges, so 3 digits
+        assertEquals(AnalyzeSolution.finished(new Puzzle("eg2_1.txt")), BatchVerifier.verify(p, "000"));
+        p = new Puzzle("eg5_2.txt"); // 60 edges, so 15 digits
+        assertEquals(15, BatchVerifier.encode(p).length());
+    }
+
+    @Test
+    public void testStream() throws IOException
+    {
+        StringBuilder in = new StringBuilder();
+        ArrayList<String> expected = new ArrayList<>();
+        for (int i = 0; i < 1000; i++)
+        {
+            int k = i % solved.size();
+            Puzzle p = new Puzzle(solved.get(k));
+            if (i % 3 == 1) p.horizontalClick(i % p.size(), 0);
+            if (i % 3 == 2) p.verticalClick(0, i % p.size());
+            in.append(k).append(' ').append(BatchVerifier.encode(p)).append('\n');
+            expected.add(k + "\t" + AnalyzeSolution.finished(p));
+        }
+        in.append("\n7 0\n");
+        expected.add("7\tInvalid record: no puzzle 7 in the corpus");
+        in.append("x\n");
+        expected.add("x\tInvalid record: expected a puzzle index and an edge bitmap");
+        in.append("0 1\n");
+        expected.add("0\tInvalid record: expected 6 hex digits for a size 3 puzzle, found 1");
+
+        StringWriter out = new StringWriter();
+        long records = new BatchVerifier(corpus, 3).verify(new BufferedReader(new StringReader(in.toString())), out);
+        assertEquals(1003, records);
+        assertEquals(String.join("\n", expected) + "\n", out.toString());
+    }
+}
@@ -0,0 +1,448 @@
+/**
+ * Benchmark times the hot paths of Puzzle and AnalyzeSolution, and the parallel search.
+ * Every bundled eg*.txt file is measured, followed by synthetic boards of size 10, 100, 1000
+ * and 2000 whose solution is the boundary of a comb, so that tracing it visits most of the dots.
+ * ParallelSearch is measured with 1, 2, 4, 8 and 16 threads on search10.slc: the eight 10x10 puzzles
+ * that needed the most search nodes (947 to 6,930 each) of 24 generated at density 0.3 from seed 2024,
+ * so the curve measures backtracking and not just deduction. The file is kept, rather than generated
+ * each time, so the puzzles stay the same when Generator changes.
+ * BatchVerifier is measured on batches of records about 10x10 and 50x50 combs,
+ * and BoardRenderer on redrawing the whole of a 200x200 comb.
+ *
+ * Each benchmark is warmed up and then run for several fixed-length iterations.
+ * The results are throughput (operations per second, with the standard deviation over the iterations),
+ * the average time per operation, and the bytes allocated per operation and per second,
+ * as counted by the JVM for the benchmarking thread. ParallelSearch and BatchVerifier do their work
+ * on pool threads that are gone by the time it is counted, so their allocation is given as n/a (null in JSON).
+ * They are printed as they are measured and saved as JSON so that runs can be compared.
+ *
+ * Usage: java Benchmark [-o results.json] [-max size] [-time millis] [-only name]
+ * Numbers are printed and saved with a '.' for the decimal point, whatever the locale.
+ *
+ * @author Jaimin Kirankumar Kerai
+ * @version 1.0
+ */
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+public class Benchmark
+{
+    private static volatile long sink;      // keeps the results of the operations alive
+
+    private long iterationNanos;            // the length of each iteration
+    private int warmups;                    // the number of iterations thrown away
+    private int iterations;                 // the number of iterations measured
+    private String only;                    // the one benchmark to run, or null for all of them
+    private int maxSize;                    // the largest comb board measured by runAll
+    private String output;                  // the JSON file runAll writes
+    private com.sun.management.ThreadMXBean threads; // counts the bytes allocated by this thread
+    private ArrayList<String> results;      // the JSON object for each benchmark measured
+
+    /**
+     * One timed operation. i counts the calls, so that an operation can visit different squares.
+     * Returns a value that depends on the work done, so that the work cannot be skipped.
+     */
+    private interface Operation
+    {
+        long run(int i);
+    }
+
+    /**
+     * Creates a benchmark whose iterations last millis milliseconds each.
+     * If only is not null, just the benchmark with that name is run.
+     */
+    public Benchmark(long millis, String only)
+    {
+        iterationNanos = millis * 1000000;
+        warmups = 3;
+        iterations = 5;
+        this.only = only;
+        maxSize = 2000;
+        output = "benchmark.json";
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        threads.setThreadAllocatedMemoryEnabled(true);
+        results = new ArrayList<>();
+    }
+
+    /**
+     * Runs every benchmark and writes the results to a JSON file.
+     * Exits with status 2 if the options are not valid.
+     */
+    public static void main(String[] args) throws IOException
+    {
+        Benchmark b;
+        try {
+            b = parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Benchmark: " + e.getMessage());
+            System.err.println("usage: java Benchmark [-o results.json] [-max size] [-time millis] [-only name]");
+            System.exit(2);
+            return;
+        }
+        b.runAll();
+    }
+
+    /**
+     * Returns a benchmark set up by the options in args.
+     * Throws an IllegalArgumentException if they are not valid, including an option with no value.
+     */
+    public static Benchmark parse(String[] args)
+    {
+        String output = "benchmark.json";
+        int maxSize = 2000;
+        long millis = 500;
+        String only = null;
+        for (int i = 0; i < args.length; i += 2){
+            if (i+1 == args.length){
+                throw new IllegalArgumentException("no value for " + args[i]);
+            }
+            try {
+                if (args[i].equals("-o")) output = args[i+1];
+                else if (args[i].equals("-max")) maxSize = Integer.parseInt(args[i+1]);
+                else if (args[i].equals("-time")) millis = Long.parseLong(args[i+1]);
+                else if (args[i].equals("-only")) only = args[i+1];
+                else throw new IllegalArgumentException("unknown option " + args[i]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("bad value " + args[i+1] + " for " + args[i]);
+            }
+        }
+        if (millis < 1){
+            throw new IllegalArgumentException("-time must be at least 1");
+        }
+        Benchmark b = new Benchmark(millis, only);
+        b.maxSize = maxSize;
+        b.output = output;
+        return b;
+    }
+
+    /**
+     * Runs every benchmark, or just the one chosen, and writes the results to the JSON file chosen.
+     */
+    public void runAll() throws IOException
+    {
+        System.out.println("benchmark\tboard\tthreads\tops/s\terror\tns/op\tB/op\tMB/s");
+        String[] files = new File(".").list((dir, name) -> name.matches("eg\\d+_\\d+\\.txt"));
+        Arrays.sort(files);
+        for (String file : files){
+            Puzzle solved = new Puzzle(file);
+            new Search(solved).solve();
+            board(file.replace(".txt", ""), file, solved);
+        }
+        for (int size : new int[] {10, 100, 1000, 2000}){
+            if (size <= maxSize){
+                File file = File.createTempFile("comb" + size + "_", ".txt");
+                file.deleteOnExit();
+                Puzzle solved = comb(size);
+                Generator.write(solved, file.getPath());
+                board("comb" + size, file.getPath(), solved);
+                file.delete();
+            }
+        }
+        parallel("search10.slc");
+        for (int size : new int[] {7, 10, 15}){
+            deduction(size);
+        }
+        for (int size : new int[] {10, 50}){
+            batch(size);
+        }
+        rendering(200);
+        write(output);
+        System.out.println("results written to " + output);
+    }
+
+    /**
+     * Measures the Puzzle and AnalyzeSolution operations on the puzzle in filename.
+     * solved is the same puzzle with its solution, so that tracePath and finished follow a real loop;
+     * it is not changed.
+     */
+    public void board(String name, String filename, Puzzle solved)
+    {
+        Puzzle scratch = new Puzzle(solved);
+        int n = solved.size();
+        int[] start = AnalyzeSolution.lineSegments(solved);
+
+        measure("parseFile", name, 1, i -> new Puzzle(filename).size());
+        // each click is made twice, so the board is the same after every operation
+        measure("horizontalClick", name, 1, i -> {
+            int r = i % (n+1), c = (i / (n+1)) % n;
+            scratch.horizontalClick(r, c);
+            scratch.horizontalClick(r, c);
+            return scratch.numLines();
+        });
+        measure("verticalClick", name, 1, i -> {
+            int r = i % n, c = (i / n) % (n+1);
+            scratch.verticalClick(r, c);
+            scratch.verticalClick(r, c);
+            return scratch.numLines();
+        });
+        measure("clear", name, 1, i -> {
+            scratch.clear();
+            return scratch.numLines();
+        });
+        measure("linesAroundSquare", name, 1, i -> AnalyzeSolution.linesAroundSquare(solved, i % n, (i / n) % n));
+        measure("badSquares", name, 1, i -> AnalyzeSolution.badSquares(solved).size());
+        measure("getConnections", name, 1, i -> AnalyzeSolution.getConnections(solved, i % (n+1), (i / (n+1)) % (n+1)).size());
+        measure("tracePath", name, 1, i -> AnalyzeSolution.tracePath(solved, start[1], start[2]).length());
+        measure("finished", name, 1, i -> AnalyzeSolution.finished(solved).length());
+    }
+
+    /**
+     * Measures ParallelSearch solving every puzzle in the corpus in filename, one after another,
+     * with 1, 2, 4, 8 and 16 threads, whatever the number of cores, and prints the speedup:
+     * the throughput over the throughput with one thread.
+     */
+    public void parallel(String filename) throws IOException
+    {
+        Corpus corpus = Corpus.open(filename);
+        String name = filename.replace(".slc", "");
+        double single = 0;
+        for (int threads : new int[] {1, 2, 4, 8, 16}){
+            double rate = measure("parallelSolve", name, threads, false, i -> {
+                long result = 0;
+                for (int k = 0; k < corpus.size(); k++){
+                    result += new ParallelSearch(corpus.get(k), threads).solve().ordinal();
+                }
+                return result;
+            });
+            if (threads == 1) single = rate;
+            long nodes = 0;
+            for (int k = 0; k < corpus.size() && rate > 0; k++){
+                ParallelSearch search = new ParallelSearch(corpus.get(k), threads);
+                search.solve();
+                nodes += search.getNodes();
+            }
+            if (rate > 0) System.out.printf(Locale.ROOT, "# parallelSolve: %.2fx with %d threads on %d cores, %d nodes%n",
+                              rate / single, threads, Runtime.getRuntime().availableProcessors(), nodes);
+        }
+    }
+
+    /**
+     * Measures the Solver's deductions on 60 generated size x size puzzles,
+     * checking squares rule by rule and with the PatternTable, and prints how much of each
+     * puzzle was deduced either way.
+     */
+    public void deduction(int size)
+    {
+        List<Puzzle> puzzles = new Generator(size, 0.45).generate(60, size);
+        for (boolean lookup : new boolean[] {false, true}){
+            String benchmark = lookup ? "deduceLookup" : "deduceRules";
+            int solved = 0, unknown = 0, edges = 0;
+            for (Puzzle p : puzzles){
+                Solver s = new Solver(new Puzzle(p));
+                s.setLookup(lookup);
+                if (s.solve() == Solver.Result.SOLVED) solved += 1;
+                unknown += s.unknownEdges();
+                edges += p.numEdges();
+            }
+            double rate = measure(benchmark, "generated" + size, 1, i -> {
+                Solver s = new Solver(new Puzzle(puzzles.get(i % puzzles.size())));
+                s.setLookup(lookup);
+                return s.solve().ordinal();
+            });
+            if (rate > 0) System.out.printf(Locale.ROOT, "# %s: %d of %d generated%d solved by deduction, %.1f%% of edges deduced%n",
+                              benchmark, solved, puzzles.size(), size, 100.0 * (edges - unknown) / edges);
+        }
+    }
+
+    /**
+     * Measures BatchVerifier checking 1000 records about a size x size comb puzzle, on every core.
+     * Every other record is the solution; the rest have one edge changed.
+     */
+    public void batch(int size) throws IOException
+    {
+        Puzzle solved = comb(size);
+        File file = File.createTempFile("batch", ".slc");
+        file.deleteOnExit();
+        Corpus.write(file.getPath(), Arrays.asList(solved));
+        BatchVerifier verifier = new BatchVerifier(Corpus.open(file.getPath()));
+        StringBuilder records = new StringBuilder();
+        for (int i = 0; i < 1000; i++){
+            Puzzle p = new Puzzle(solved);
+            if (i % 2 == 1) p.horizontalClick(i % (size+1), i % size);
+            records.append("0 ").append(BatchVerifier.encode(p)).append('\n');
+        }
+        String input = records.toString();
+        double rate = measure("batchVerify", "comb" + size, Runtime.getRuntime().availableProcessors(), false, i -> {
+            try {
+                return verifier.verify(new BufferedReader(new StringReader(input)), new StringWriter());
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        if (rate > 0) System.out.printf(Locale.ROOT, "# %.0f verifications/s of comb%d%n", rate * 1000, size);
+        file.delete();
+    }
+
+    /**
+     * Measures BoardRenderer redrawing the whole of a size x size comb with a Red X on every other edge,
+     * at 40 pixels between dots, one tile of BoardView at a time, drawing the numbers and Red Xs
+     * as text and from sprites.
+     */
+    public void rendering(int size)
+    {
+        Puzzle p = comb(size);
+        for (int e = 0; e < p.numEdges(); e++){
+            if (p.getEdge(e) == Puzzle.UNKNOWN) p.setEdge(e, Puzzle.CROSS);
+        }
+        int pitch = 40, tile = BoardView.TILE;
+        int tiles = ((size+1)*pitch + tile-1) / tile;
+        BufferedImage image = new BufferedImage(tile, tile, BufferedImage.TYPE_INT_RGB);
+        for (boolean sprites : new boolean[] {false, true}){
+            String benchmark = sprites ? "redrawSprites" : "redrawText";
+            BoardRenderer renderer = new BoardRenderer(p, Color.white);
+            renderer.setSprites(sprites);
+            double rate = measure(benchmark, "comb" + size, 1, i -> {
+                for (int ty = 0; ty < tiles; ty++){
+                    for (int tx = 0; tx < tiles; tx++){
+                        Graphics2D g = image.createGraphics();
+                        g.translate(-tx*tile, -ty*tile);
+                        renderer.paint(g, pitch, tx*tile, ty*tile, tile, tile);
+                        g.dispose();
+                    }
+                }
+                return image.getRGB(0, 0);
+            });
+            if (rate > 0) System.out.printf(Locale.ROOT, "# %s: %.1f ms per full redraw of comb%d%n", benchmark, 1000 / rate, size);
+        }
+    }
+
+    /**
+     * Returns a size x size puzzle with every number filled in,
+     * whose solution is the boundary of a comb: the top row of squares, and every other column below it.
+     */
+    public static Puzzle comb(int size)
+    {
+        int[][] empty = new int[size][size];
+        for (int[] row : empty){
+            Arrays.fill(row, -1);
+        }
+        Puzzle p = new Puzzle(empty);
+        boolean[][] inside = new boolean[size+2][size+2]; // with a border of squares outside the grid
+        for (int r = 0; r < size; r++){
+            for (int c = 0; c < size; c++){
+                inside[r+1][c+1] = r == 0 || c % 2 == 0;
+            }
+        }
+        for (int r = 0; r <= size; r++){
+            for (int c = 0; c < size; c++){
+                if (inside[r][c+1] != inside[r+1][c+1]) p.setEdge(p.horizontalEdge(r, c), Puzzle.LINE);
+            }
+        }
+        for (int r = 0; r < size; r++){
+            for (int c = 0; c <= size; c++){
+                if (inside[r+1][c] != inside[r+1][c+1]) p.setEdge(p.verticalEdge(r, c), Puzzle.LINE);
+            }
+        }
+        for (int r = 0; r < size; r++){
+            for (int c = 0; c < size; c++){
+                p.setNumber(r, c, p.linesAround(r, c));
+            }
+        }
+        return p;
+    }
+
+    /**
+     * Warms up and measures one operation that does all its work on the calling thread,
+     * then prints and records the result.
+     * Returns the mean number of operations per second, or 0 if the benchmark was skipped.
+     */
+    private double measure(String benchmark, String board, int threadCount, Operation op)
+    {
+        return measure(benchmark, board, threadCount, true, op);
+    }
+
+    /**
+     * Warms up and measures one operation, then prints and records the result.
+     * counted is false if the operation does its work on other threads, whose allocation is not counted.
+     * Returns the mean number of operations per second, or 0 if the benchmark was skipped.
+     */
+    private double measure(String benchmark, String board, int threadCount, boolean counted, Operation op)
+    {
+        if (only != null && !only.equals(benchmark)) return 0;
+        for (int i = 0; i < warmups; i++){
+            iteration(op, new long[3]);
+        }
+        double[] rates = new double[iterations];
+        long ops = 0, nanos = 0, bytes = 0;
+        for (int i = 0; i < iterations; i++){
+            long[] counts = new long[3];
+            iteration(op, counts);
+            rates[i] = counts[0] * 1e9 / counts[1];
+            ops += counts[0];
+            nanos += counts[1];
+            bytes += counts[2];
+        }
+        double mean = 0, variance = 0;
+        for (double rate : rates){
+            mean += rate / iterations;
+        }
+        for (double rate : rates){
+            variance += (rate - mean) * (rate - mean) / Math.max(1, iterations-1);
+        }
+        double error = Math.sqrt(variance);
+        double nanosPerOp = (double) nanos / ops;
+        double bytesPerOp = (double) bytes / ops;
+        double megabytesPerSecond = bytes * 1e9 / nanos / (1 << 20);
+        System.out.printf(Locale.ROOT, "%s\t%s\t%d\t%.1f\t%.1f\t%.1f\t%s\t%s%n",
+                          benchmark, board, threadCount, mean, error, nanosPerOp,
+                          counted ? String.format(Locale.ROOT, "%.1f", bytesPerOp) : "n/a",
+                          counted ? String.format(Locale.ROOT, "%.1f", megabytesPerSecond) : "n/a");
+        results.add(String.format(Locale.ROOT, "{\"benchmark\": \"%s\", \"board\": \"%s\", \"threads\": %d, "
+                                  + "\"opsPerSecond\": %.3f, \"opsPerSecondError\": %.3f, \"nanosPerOp\": %.3f, "
+                                  + "\"bytesPerOp\": %s, \"allocMegabytesPerSecond\": %s, \"operations\": %d}",
+                                  benchmark, board, threadCount, mean, error, nanosPerOp,
+                                  counted ? String.format(Locale.ROOT, "%.3f", bytesPerOp) : "null",
+                                  counted ? String.format(Locale.ROOT, "%.3f", megabytesPerSecond) : "null", ops));
+        return mean;
+    }
+
+    /**
+     * Runs op for one iteration, at least once, and stores the number of operations,
+     * the nanoseconds taken and the bytes allocated in counts.
+     * The clock is read after batches of operations that grow until they take about 1% of the iteration,
+     * so that reading it costs little even for the fastest operations.
+     */
+    private void iteration(Operation op, long[] counts)
+    {
+        long thread = Thread.currentThread().getId();
+        long result = 0;
+        long done = 0;
+        long batch = 1;
+        long bytes = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        long now = start;
+        while (done == 0 || now - start < iterationNanos){
+            for (long k = 0; k < batch; k++){
+                result += op.run((int) (done + k) & Integer.MAX_VALUE);
+            }
+            done += batch;
+            now = System.nanoTime();
+            if (now - start < iterationNanos / 100) batch *= 2;
+        }
+        counts[0] = done;
+        counts[1] = now - start;
+        counts[2] = threads.getThreadAllocatedBytes(thread) - bytes;
+        sink += result;
+    }
+
+    /**
+     * Writes the results measured so far to filename as a JSON array.
+     */
+    public void write(String filename) throws IOException
+    {
+        Files.write(Paths.get(filename), Arrays.asList("[", String.join(",\n", results), "]"));
+    }
+}
@@ -0,0 +1,365 @@
+/**
+ * BoardRenderer draws a Puzzle at any size: its dots, numbers, line segments and Red Xs.
+ * Positions are in board pixels: the dots are pitch pixels apart, with Dot r,c at
+ * dot(c, pitch), dot(r, pitch), so the whole board is (size+1)*pitch pixels square.
+ * Only the parts of the board inside the area asked for are drawn,
+ * so drawing part of a huge board costs no more than drawing a small board.
+ *
+ * Numbers are drawn green once they have exactly that many line segments around them,
+ * and red once they cannot: when they have too many line segments, or too many Red Xs.
+ * Dots at the end of a line are drawn orange, and dots with three or more lines red.
+ *
+ * The fonts and stroke for each pitch are made once and shared by every renderer,
+ * so renderers are cheap, and can be used on many threads at once, one per puzzle.
+ * So are sprites of the digits 0-3 and the dots in each colour, and of the Red X:
+ * each is drawn once, without smoothing, and cut down to the pixels it changes.
+ * They are opaque, so copying one is a plain copy of pixels, which is several times quicker
+ * than drawing the text or the dot. That is only right while no two sprites overlap,
+ * with numbers drawn first, and dots before lines, which is so from about 10 pixels between dots;
+ * closer than that the text and dots are drawn each time.
+ *
+ * @author Jaimin Kirankumar Kerai
+ * @version 1.0
+ */
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+class BoardRenderer
+{
+    public static final Color MET = new Color(0, 150, 0);      // the colour of a number that is met
+    public static final Color DANGLING = new Color(255, 140, 0); // the colour of a dot at the end of a line
+    private static final Color[] NUMBER_COLOURS = {Color.black, MET, Color.red}; // the colours of numbers
+    private static final Color[] DOT_COLOURS = {Color.black, DANGLING, Color.red}; // the colours of dots
+
+    private static final ConcurrentHashMap<Long, Style> STYLES = new ConcurrentHashMap<>(); // by background and pitch
+
+    private Puzzle game;      // the puzzle to draw
+    private Color background; // the colour behind the board
+    private boolean sprites;  // true iff numbers, dots and Red Xs are copied from sprites
+
+    /**
+     * An image to copy onto the board, with its offset from the point it is drawn at.
+     */
+    private static class Sprite
+    {
+        final BufferedImage image; // the pixels
+        final int dx, dy;          // the offset of the top left of image
+
+        /**
+         * Creates a sprite of image at dx,dy.
+         */
+        Sprite(BufferedImage image, int dx, int dy)
+        {
+            this.image = image;
+            this.dx = dx;
+            this.dy = dy;
+        }
+    }
+
+    /**
+     * The fonts, stroke and sprites used at one pitch on one background.
+     */
+    private static class Style
+    {
+        final Font number;         // the font for numbers
+        final Font cross;          // the font for Red Xs
+        final BasicStroke stroke;  // the stroke for line segments
+        final int radius;          // the radius of a dot
+        final int numberBase;      // the baseline of a number below the middle of its square
+        final int[] numberLeft;    // the left of each digit 0-3 from the middle of its square
+        final int crossLeft;       // the left of a Red X from the middle of its edge
+        final int crossBase;       // the baseline of a Red X below the middle of its edge
+        final Sprite[][] digits;   // each digit 0-3 in each of NUMBER_COLOURS, from the middle of its square
+        final Sprite[] dots;       // a dot in each of DOT_COLOURS, from its middle
+        final Sprite x;            // the Red X, from the middle of its edge
+        final boolean apart;       // true iff no two sprites can overlap on the board
+
+        /**
+         * Creates the style for pitch on background.
+         */
+        Style(int pitch, Color background)
+        {
+            number = new Font("Arial", Font.BOLD, Math.max(pitch/2, 6));
+            cross = new Font("Arial", Font.BOLD, Math.max(pitch*3/8, 5));
+            stroke = new BasicStroke(Math.max(pitch/40, 1));
+            radius = Math.max(pitch/8, 1);
+            Graphics2D g = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB).createGraphics();
+            FontMetrics numbers = g.getFontMetrics(number), crosses = g.getFontMetrics(cross);
+            g.dispose();
+            numberBase = numbers.getAscent()*2/5;
+            numberLeft = new int[4];
+            crossLeft = -crosses.stringWidth("x")/2;
+            crossBase = crosses.getAscent()/3;
+            digits = new Sprite[NUMBER_COLOURS.length][4];
+            for (int d = 0; d < 4; d++){
+                numberLeft[d] = -numbers.stringWidth("" + d)/2;
+                for (int i = 0; i < NUMBER_COLOURS.length; i++){
+                    Color colour = NUMBER_COLOURS[i];
+                    String text = "" + d;
+                    int left = numberLeft[d];
+                    digits[i][d] = sprite(background, pitch, s -> {
+                        s.setFont(number);
+                        s.setColor(colour);
+                        s.drawString(text, left, numberBase);
+                    });
+                }
+            }
+            dots = new Sprite[DOT_COLOURS.length];
+            for (int i = 0; i < DOT_COLOURS.length; i++){
+                Color colour = DOT_COLOURS[i];
+                dots[i] = sprite(background, pitch, s -> {
+                    s.setColor(colour);
+                    s.fillOval(-radius, -radius, 2*radius + 1, 2*radius + 1);
+                });
+            }
+            x = sprite(background, pitch, s -> {
+                s.setFont(cross);
+                s.setColor(Color.red);
+                s.drawString("x", crossLeft, crossBase);
+            });
+            apart = apart(pitch);
+        }
+
+        /**
+         * Returns true iff no two sprites overlap when placed around a block of squares at pitch.
+         */
+        private boolean apart(int pitch)
+        {
+            List<Rectangle> placed = new ArrayList<>();
+            for (int i = 0; i < 3; i++){
+                for (int j = 0; j < 3; j++){
+                    int px = i*pitch, py = j*pitch;
+                    placed.add(place(dots[0], px, py));
+                    placed.add(place(x, px + pitch/2, py));
+                    placed.add(place(x, px, py + pitch/2));
+                    Rectangle number = place(digits[0][0], px + pitch/2, py + pitch/2);
+                    for (int d = 1; d < 4; d++){
+                        number.add(place(digits[0][d], px + pitch/2, py + pitch/2));
+                    }
+                    placed.add(number);
+                }
+            }
+            for (int a = 0; a < placed.size(); a++){
+                for (int b = a+1; b < placed.size(); b++){
+                    if (placed.get(a).intersects(placed.get(b))) return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Returns the rectangle sprite covers when drawn at x,y.
+         */
+        private static Rectangle place(Sprite sprite, int x, int y)
+        {
+            return new Rectangle(x + sprite.dx, y + sprite.dy, sprite.image.getWidth(), sprite.image.getHeight());
+        }
+
+        /**
+         * Returns a sprite of what draw puts on background within size pixels of 0,0,
+         * cut down to the smallest rectangle holding every pixel it changes.
+         */
+        private static Sprite sprite(Color background, int size, Consumer<Graphics2D> draw)
+        {
+            BufferedImage image = new BufferedImage(2*size, 2*size, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = image.createGraphics();
+            g.setColor(background);
+            g.fillRect(0, 0, 2*size, 2*size);
+            g.translate(size, size);
+            draw.accept(g);
+            g.dispose();
+            int x0 = 2*size, y0 = 2*size, x1 = 0, y1 = 0;
+            for (int y = 0; y < 2*size; y++){
+                for (int x = 0; x < 2*size; x++){
+                    if (image.getRGB(x, y) != background.getRGB()){
+                        x0 = Math.min(x0, x);
+                        y0 = Math.min(y0, y);
+                        x1 = Math.max(x1, x+1);
+                        y1 = Math.max(y1, y+1);
+                    }
+                }
+            }
+            if (x0 >= x1){
+                x0 = y0 = size;
+                x1 = y1 = size+1;
+            }
+            BufferedImage cut = new BufferedImage(x1 - x0, y1 - y0, BufferedImage.TYPE_INT_RGB);
+            cut.setRGB(0, 0, x1 - x0, y1 - y0, image.getRGB(x0, y0, x1 - x0, y1 - y0, null, 0, x1 - x0), 0, x1 - x0);
+            return new Sprite(cut, x0 - size, y0 - size);
+        }
+    }
+
+    /**
+     * Creates a renderer for game on the background colour.
+     */
+    public BoardRenderer(Puzzle game, Color background)
+    {
+        this.game = game;
+        this.background = background;
+        sprites = true;
+    }
+
+    /**
+     * Chooses how numbers, dots and Red Xs are drawn: copied from sprites if sprites is true,
+     * which is the default, otherwise drawn afresh each time. The pixels are the same either way.
+     */
+    public void setSprites(boolean sprites)
+    {
+        this.sprites = sprites;
+    }
+
+    /**
+     * Returns the position in board pixels of the dots in row or column i, at pitch.
+     */
+    public static int dot(int i, int pitch)
+    {
+        return pitch/2 + i*pitch;
+    }
+
+    /**
+     * Returns the area in board pixels that can look different at pitch when edge e changes:
+     * the edge, the dots at its ends and the squares on either side.
+     */
+    public Rectangle bounds(int e, int pitch)
+    {
+        int n = game.size();
+        int h = n*(n+1);
+        if (e < h){
+            return new Rectangle(dot(e % n, pitch) - pitch/4, dot(e / n, pitch) - pitch, pitch*3/2, 2*pitch);
+        } else {
+            return new Rectangle(dot((e-h) % (n+1), pitch) - pitch, dot((e-h) / (n+1), pitch) - pitch/4, 2*pitch, pitch*3/2);
+        }
+    }
+
+    /**
+     * Returns the state of the number in Square r,c, as an index into NUMBER_COLOURS:
+     * 0 if it is neither met nor broken, 1 if it is met and 2 if it cannot be met.
+     */
+    private int numberState(int r, int c, int number)
+    {
+        int lines = game.linesAround(r, c);
+        int crosses = (game.getEdge(game.horizontalEdge(r, c)) == Puzzle.CROSS ? 1 : 0)
+                      + (game.getEdge(game.horizontalEdge(r+1, c)) == Puzzle.CROSS ? 1 : 0)
+                      + (game.getEdge(game.verticalEdge(r, c)) == Puzzle.CROSS ? 1 : 0)
+                      + (game.getEdge(game.verticalEdge(r, c+1)) == Puzzle.CROSS ? 1 : 0);
+        if (lines > number || 4 - crosses < number){
+            return 2;
+        } else if (lines == number){
+            return 1;
+        } else {
+            return 0;
+        }
+    }
+
+    /**
+     * Returns the state of Dot r,c, as an index into DOT_COLOURS:
+     * 0 if it has no lines or two, 1 if it has one and 2 if it has more than two.
+     */
+    private int dotState(int r, int c)
+    {
+        int degree = game.degree(r, c);
+        if (degree > 2){
+            return 2;
+        } else if (degree == 1){
+            return 1;
+        } else {
+            return 0;
+        }
+    }
+
+    /**
+     * Draws the part of the board at x,y of width w and height h, at pitch, on g.
+     * g is in board pixels, so the caller translates it to put the area where it wants.
+     */
+    public void paint(Graphics2D g, int pitch, int x, int y, int w, int h)
+    {
+        int n = game.size();
+        int r0 = Math.max(Math.floorDiv(y, pitch) - 1, 0), r1 = Math.min(Math.floorDiv(y + h, pitch) + 1, n);
+        int c0 = Math.max(Math.floorDiv(x, pitch) - 1, 0), c1 = Math.min(Math.floorDiv(x + w, pitch) + 1, n);
+        g.setColor(background);
+        g.fillRect(x, y, w, h);
+
+        Style style = STYLES.computeIfAbsent((long) background.getRGB() << 32 | pitch, key -> new Style(pitch, background));
+        boolean copy = sprites && style.apart;
+        for (int r = r0; r < Math.min(r1, n); r++){
+            for (int c = c0; c < Math.min(c1, n); c++){
+                int number = game.getNumber(r, c);
+                if (number != -1){
+                    int mx = dot(c, pitch) + pitch/2, my = dot(r, pitch) + pitch/2;
+                    int state = numberState(r, c, number);
+                    if (copy && number < 4){
+                        draw(g, style.digits[state][number], mx, my);
+                    } else {
+                        int left = number < 4 ? style.numberLeft[number] : -g.getFontMetrics(style.number).stringWidth("" + number)/2;
+                        g.setFont(style.number);
+                        g.setColor(NUMBER_COLOURS[state]);
+                        g.drawString("" + number, mx + left, my + style.numberBase);
+                    }
+                }
+            }
+        }
+
+        for (int r = r0; r <= r1; r++){
+            for (int c = c0; c <= c1; c++){
+                int state = dotState(r, c);
+                if (copy){
+                    draw(g, style.dots[state], dot(c, pitch), dot(r, pitch));
+                } else {
+                    g.setColor(DOT_COLOURS[state]);
+                    g.fillOval(dot(c, pitch) - style.radius, dot(r, pitch) - style.radius, 2*style.radius + 1, 2*style.radius + 1);
+                }
+            }
+        }
+
+        g.setStroke(style.stroke);
+        g.setFont(style.cross);
+        for (int r = r0; r <= r1; r++){
+            for (int c = c0; c <= c1; c++){
+                int dx = dot(c, pitch), dy = dot(r, pitch);
+                if (c < n){
+                    int state = game.getEdge(game.horizontalEdge(r, c));
+                    if (state == Puzzle.LINE){
+                        g.setColor(Color.black);
+                        g.drawLine(dx + pitch/8, dy, dx + pitch*7/8, dy);
+                    } else if (state == Puzzle.CROSS){
+                        drawCross(g, style, copy, dx + pitch/2, dy);
+                    }
+                }
+                if (r < n){
+                    int state = game.getEdge(game.verticalEdge(r, c));
+                    if (state == Puzzle.LINE){
+                        g.setColor(Color.black);
+                        g.drawLine(dx, dy + pitch/8, dx, dy + pitch*7/8);
+                    } else if (state == Puzzle.CROSS){
+                        drawCross(g, style, copy, dx, dy + pitch/2);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Draws a Red X on g in style, copied from its sprite if copy is true, on the edge whose middle is at x,y.
+     */
+    private static void drawCross(Graphics2D g, Style style, boolean copy, int x, int y)
+    {
+        if (copy){
+            draw(g, style.x, x, y);
+        } else {
+            g.setColor(Color.red);
+            g.drawString("x", x + style.crossLeft, y + style.crossBase);
+        }
+    }
+
+    /**
+     * Copies sprite onto g at x,y.
+     */
+    private static void draw(Graphics2D g, Sprite sprite, int x, int y)
+    {
+        g.drawImage(sprite.image, x + sprite.dx, y + sprite.dy, null);
+    }
+}
@@ -0,0 +1,74 @@
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * This class provides unit test cases for the BoardRenderer class.
+ * @author Jaimin Kirankumar Kerai
+ * @version 1.0
+ */
+public class BoardRendererTest
+{
+    private Puzzle p;
+
+    /**
+     * Sets up the test fixture.
+     *
+     * Called before every test case method.
+     */
+    @Before
+    public void setUp()
+    {
+        p = new Puzzle("eg7_1.txt");
+        new Search(p).solve();
+        for (int r = 0; r < 7; r++)
+            p.RightClickXH(r, r % 3);
+        p.horizontalClick(7, 6);
+        p.verticalClick(3, 0);
+    }
+
+    @Test
+    public void testSprites()
+    {
+        for (int pitch : new int[] {8, 12, 16, 24, 32, 40, 56, 80}){
+            BufferedImage text = render(pitch, false), sprites = render(pitch, true);
+            for (int y = 0; y < text.getHeight(); y++)
+                for (int x = 0; x < text.getWidth(); x++)
+                    assertEquals("pitch " + pitch + " at " + x + "," + y, text.getRGB(x, y), sprites.getRGB(x, y));
+        }
+    }
+
+    @Test
+    public void testPart()
+    {
+        // drawing part of the board draws the same pixels there as drawing all of it
+        BufferedImage whole = render(40, true);
+        BufferedImage part = new BufferedImage(whole.getWidth(), whole.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = part.createGraphics();
+        g.clipRect(70, 90, 130, 110);
+        new BoardRenderer(p, Color.white).paint(g, 40, 70, 90, 130, 110);
+        g.dispose();
+        for (int y = 90; y < 200; y++)
+            for (int x = 70; x < 200; x++)
+                assertEquals(whole.getRGB(x, y), part.getRGB(x, y));
+    }
+
+    /**
+     * Returns the whole of p drawn at pitch, from sprites or as text.
+     */
+    private BufferedImage render(int pitch, boolean sprites)
+    {
+        int board = (p.size()+1) * pitch;
+        BufferedImage image = new BufferedImage(board, board, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        BoardRenderer renderer = new BoardRenderer(p, Color.white);
+        renderer.setSprites(sprites);
+        renderer.paint(g, pitch, 0, 0, board, board);
+        g.dispose();
+        return image;
+    }
+}
@@ -0,0 +1,190 @@
+/**
+ * BoardView shows part of a Puzzle in a view of fixed size, at one of several zoom levels,
+ * and can be panned across the board.
+ * The board is drawn in square tiles, which are kept per zoom level until they are
+ * the least recently used of more than a few screenfuls, so only tiles that come into view
+ * are ever drawn, and the memory used depends on the size of the view and not on the puzzle.
+ *
+ * @author Jaimin Kirankumar Kerai
+ * @version 1.0
+ */
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+class BoardView
+{
+    public static final int TILE = 256;                               // the width and height of a tile
+    private static final int[] PITCHES = {8, 12, 16, 24, 32, 40, 56, 80}; // the dot spacing at each zoom level
+    private static final int BIAS = 1 << 20;                          // added to tile numbers to pack them
+
+    private Puzzle game;                       // the puzzle on view
+    private BoardRenderer renderer;            // draws the tiles
+    private int width, height;                 // the size of the view
+    private int zoom;                          // the zoom level, an index into PITCHES
+    private int left, top;                     // the board pixel at the top left of the view
+    private LinkedHashMap<Long, BufferedImage> tiles; // the tiles drawn, least recently used first
+
+    /**
+     * Creates a view of width by height pixels showing the top left of game, with dots 40 pixels apart.
+     */
+    public BoardView(Puzzle game, int width, int height, Color background)
+    {
+        this.game = game;
+        this.width = width;
+        this.height = height;
+        renderer = new BoardRenderer(game, background);
+        zoom = 5;
+        int limit = 3 * (width/TILE + 2) * (height/TILE + 2);
+        tiles = new LinkedHashMap<Long, BufferedImage>(2*limit, 0.75f, true) {
+            protected boolean removeEldestEntry(Map.Entry<Long, BufferedImage> eldest)
+            {
+                return size() > limit;
+            }
+        };
+        pan(0, 0);
+    }
+
+    /**
+     * Returns the distance between neighbouring dots at the current zoom level.
+     */
+    public int getPitch()
+    {
+        return PITCHES[zoom];
+    }
+
+    /**
+     * Returns the number of tiles kept.
+     */
+    public int numTiles()
+    {
+        return tiles.size();
+    }
+
+    /**
+     * Returns a picker for the edges under points in the view.
+     */
+    public EdgePicker picker()
+    {
+        int d = BoardRenderer.dot(0, getPitch());
+        return new EdgePicker(game, d - left, d - top, getPitch());
+    }
+
+    /**
+     * Moves the view dx pixels right and dy pixels down over the board, as far as the board goes.
+     * A board smaller than the view is centred in it.
+     */
+    public void pan(int dx, int dy)
+    {
+        int board = (game.size()+1) * getPitch();
+        left = board <= width ? (board - width)/2 : Math.max(0, Math.min(left + dx, board - width));
+        top = board <= height ? (board - height)/2 : Math.max(0, Math.min(top + dy, board - height));
+    }
+
+    /**
+     * Zooms steps levels in, or out if steps is negative, keeping the point x,y in the view still.
+     * Returns false if the view is already at the last level that way.
+     */
+    public boolean zoom(int steps, int x, int y)
+    {
+        int next = Math.max(0, Math.min(zoom + steps, PITCHES.length-1));
+        if (next == zoom){
+            return false;
+        }
+        long bx = (long) (left + x) * PITCHES[next] / PITCHES[zoom];
+        long by = (long) (top + y) * PITCHES[next] / PITCHES[zoom];
+        zoom = next;
+        left = (int) bx - x;
+        top = (int) by - y;
+        pan(0, 0);
+        return true;
+    }
+
+    /**
+     * Returns the area of the view that can change when edge e changes,
+     * which may be partly or wholly outside the view.
+     */
+    public Rectangle bounds(int e)
+    {
+        Rectangle b = renderer.bounds(e, getPitch());
+        b.translate(-left, -top);
+        return b;
+    }
+
+    /**
+     * Redraws edge e, and the dots and squares beside it, in every tile kept at any zoom level,
+     * after it changes. Nothing else in the tiles is drawn again.
+     */
+    public void update(int e)
+    {
+        for (Map.Entry<Long, BufferedImage> entry : tiles.entrySet()){
+            long key = entry.getKey();
+            int pitch = (int) (key >>> 42);
+            int tx = (int) (key & (2*BIAS-1)) - BIAS, ty = (int) (key >>> 21 & (2*BIAS-1)) - BIAS;
+            Rectangle area = renderer.bounds(e, pitch).intersection(new Rectangle(tx*TILE, ty*TILE, TILE, TILE));
+            if (!area.isEmpty()){
+                Graphics2D g = entry.getValue().createGraphics();
+                g.translate(-tx*TILE, -ty*TILE);
+                g.clip(area);
+                renderer.paint(g, pitch, area.x, area.y, area.width, area.height);
+                g.dispose();
+            }
+        }
+    }
+
+    /**
+     * Throws away every tile, after a change to the whole board.
+     */
+    public void clear()
+    {
+        tiles.clear();
+    }
+
+    /**
+     * Returns tile tx,ty at the current zoom level: the board pixels from tx*TILE, ty*TILE.
+     * The tile is drawn if it is not kept.
+     */
+    public BufferedImage tile(int tx, int ty)
+    {
+        long key = (long) getPitch() << 42 | (long) (ty + BIAS) << 21 | (tx + BIAS);
+        BufferedImage image = tiles.get(key);
+        if (image == null){
+            image = new BufferedImage(TILE, TILE, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = image.createGraphics();
+            g.translate(-tx*TILE, -ty*TILE);
+            renderer.paint(g, getPitch(), tx*TILE, ty*TILE, TILE, TILE);
+            g.dispose();
+            tiles.put(key, image);
+        }
+        return image;
+    }
+
+    /**
+     * Draws the whole view on sc, with its top left corner at 0,0.
+     */
+    public void draw(SimpleCanvas sc)
+    {
+        draw(sc, new Rectangle(0, 0, width, height));
+    }
+
+    /**
+     * Draws the part of the view in area on sc, with the view's top left corner at 0,0.
+     */
+    public void draw(SimpleCanvas sc, Rectangle area)
+    {
+        Rectangle view = area.intersection(new Rectangle(0, 0, width, height));
+        if (view.isEmpty()){
+            return;
+        }
+        int x0 = left + view.x, y0 = top + view.y;
+        int x1 = x0 + view.width, y1 = y0 + view.height;
+        for (int ty = Math.floorDiv(y0, TILE); ty*TILE < y1; ty++){
+            for (int tx = Math.floorDiv(x0, TILE); tx*TILE < x1; tx++){
+                int sx = Math.max(x0 - tx*TILE, 0), sy = Math.max(y0 - ty*TILE, 0);
+                int w = Math.min(x1 - tx*TILE, TILE) - sx, h = Math.min(y1 - ty*TILE, TILE) - sy;
+                sc.drawImage(tile(tx, ty), sx, sy, w, h, tx*TILE + sx - left, ty*TILE + sy - top);
+            }
+        }
+    }
+}
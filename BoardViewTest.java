@@ -0,0 +1,179 @@
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+
+/**
+ * This class provides unit test cases for the BoardView class.
+ * @author Jaimin Kirankumar Kerai
+ * @version 1.0
+ */
+public class BoardViewTest
+{
+    private Puzzle p;
+    private Puzzle big;
+
+    /**
+     * Sets up the test fixture.
+     *
+     * Called before every test case method.
+     */
+    @Before
+    public void setUp()
+    {
+        p = new Puzzle("eg10_1.txt");
+        p.horizontalClick(0, 0);
+        p.verticalClick(3, 6);
+        p.RightClickXH(6, 2);
+        p.RightClickXV(5, 5);
+        int[][] numbers = new int[300][300];
+        for (int[] row : numbers) java.util.Arrays.fill(row, -1);
+        big = new Puzzle(numbers);
+    }
+
+    @Test
+    public void testTilesMatchBoard()
+    {
+        int board = 11*40;
+        BufferedImage whole = render(p, 40);
+        BoardView v = new BoardView(p, board, board, Color.white);
+        for (int y = 0; y < board; y++){
+            for (int x = 0; x < board; x++){
+                BufferedImage tile = v.tile(x / BoardView.TILE, y / BoardView.TILE);
+                assertEquals(whole.getRGB(x, y), tile.getRGB(x % BoardView.TILE, y % BoardView.TILE));
+            }
+        }
+        assertEquals(4, v.numTiles());
+    }
+
+    @Test
+    public void testUpdate()
+    {
+        int board = 11*40;
+        BoardView v = new BoardView(p, board, board, Color.white);
+        BufferedImage[] tiles = {v.tile(0, 0), v.tile(1, 0), v.tile(0, 1), v.tile(1, 1)};
+        int[] edges = {p.horizontalEdge(6, 5), p.verticalEdge(5, 6), p.verticalEdge(6, 6), p.horizontalEdge(7, 5),
+                       p.verticalEdge(3, 6), p.horizontalEdge(0, 0)};
+        for (int e : edges){
+            p.setEdge(e, p.getEdge(e) == Puzzle.LINE ? Puzzle.CROSS : Puzzle.LINE);
+            v.update(e);
+        }
+        BufferedImage whole = render(p, 40);
+        for (int y = 0; y < board; y++){
+            for (int x = 0; x < board; x++){
+                assertEquals(whole.getRGB(x, y), tiles[x / BoardView.TILE + 2 * (y / BoardView.TILE)].getRGB(x % BoardView.TILE, y % BoardView.TILE));
+            }
+        }
+        assertTrue(tiles[0] == v.tile(0, 0));
+        v.clear();
+        assertEquals(0, v.numTiles());
+    }
+
+    @Test
+    public void testHighlight()
+    {
+        // Square 0,0 of eg3_1 holds no number, Square 0,2 holds a 3 and Square 1,2 a 1
+        Puzzle q = new Puzzle("eg3_1.txt");
+        int red = Color.red.getRGB(), green = new Color(0, 150, 0).getRGB();
+        assertFalse(contains(render(q, 40), 100, 20, 40, 40, green));
+        q.horizontalClick(0, 2);
+        q.verticalClick(0, 3);
+        q.horizontalClick(1, 2);
+        assertTrue(contains(render(q, 40), 100, 20, 40, 40, green));
+        assertTrue(contains(render(q, 40), 100, 60, 40, 40, green));
+        q.verticalClick(1, 3);
+        assertTrue(contains(render(q, 40), 100, 60, 40, 40, red));
+        BufferedImage image = render(q, 40);
+        assertEquals(red, image.getRGB(140, 60));               // Dot 1,3 has three lines
+        assertEquals(new Color(255, 140, 0).getRGB(), image.getRGB(100, 20)); // Dot 0,2 ends a line
+        assertEquals(Color.black.getRGB(), image.getRGB(20, 20));
+    }
+
+    /**
+     * Returns the whole of puzzle q drawn at pitch.
+     */
+    private BufferedImage render(Puzzle q, int pitch)
+    {
+        int board = (q.size()+1) * pitch;
+        BufferedImage image = new BufferedImage(board, board, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        new BoardRenderer(q, Color.white).paint(g, pitch, 0, 0, board, board);
+        g.dispose();
+        return image;
+    }
+
+    /**
+     * Returns true iff the area of image at x,y of width w and height h has a pixel of colour rgb.
+     */
+    private boolean contains(BufferedImage image, int x, int y, int w, int h, int rgb)
+    {
+        for (int i = x; i < x + w; i++){
+            for (int j = y; j < y + h; j++){
+                if (image.getRGB(i, j) == rgb) return true;
+            }
+        }
+        return false;
+    }
+
+    @Test
+    public void testMemory()
+    {
+        BoardView v = new BoardView(big, 512, 512, Color.white);
+        for (int ty = 0; ty < 40; ty++){
+            for (int tx = 0; tx < 40; tx++){
+                v.tile(tx, ty);
+            }
+        }
+        assertTrue(v.numTiles() <= 3*4*4);
+    }
+
+    @Test
+    public void testPanZoom()
+    {
+        BoardView v = new BoardView(big, 400, 300, Color.white);
+        assertEquals(40, v.getPitch());
+        v.pan(-100, -100);
+        assertEquals(new Rectangle(10, -20, 60, 80), v.bounds(big.horizontalEdge(0, 0)));
+        v.pan(1000000, 1000000);
+        Rectangle last = v.bounds(big.verticalEdge(299, 300));
+        assertEquals(400, last.x + last.width/2 + 20);
+        assertEquals(300, last.y + 10 + 40 + 20);
+
+        v.pan(-1000000, -1000000);
+        Rectangle before = v.bounds(big.horizontalEdge(2, 2));
+        assertTrue(v.zoom(1, before.x, before.y));
+        assertEquals(56, v.getPitch());
+        Rectangle after = v.bounds(big.horizontalEdge(2, 2));
+        assertTrue(Math.abs(before.x - after.x) <= 1);
+        assertTrue(Math.abs(before.y - after.y) <= 1);
+        assertTrue(v.zoom(10, 0, 0));
+        assertEquals(80, v.getPitch());
+        assertFalse(v.zoom(1, 0, 0));
+
+        // a board smaller than the view is centred
+        BoardView small = new BoardView(p, 800, 800, Color.white);
+        small.zoom(-5, 0, 0);
+        assertEquals(8, small.getPitch());
+        assertEquals(400 - 44 + 4 - 2, small.bounds(p.horizontalEdge(0, 0)).x);
+    }
+
+    @Test
+    public void testPicker()
+    {
+        BoardView v = new BoardView(big, 400, 300, Color.white);
+        v.pan(12345, 6789);
+        v.zoom(-2, 100, 100);
+        for (int e : new int[] {big.horizontalEdge(170, 155), big.verticalEdge(168, 160)}){
+            Rectangle b = v.bounds(e);
+            if (e < big.verticalEdge(0, 0)){
+                assertEquals(e, v.picker().pick(b.x + b.width/4, b.y + b.height/2 + 1));
+            } else {
+                assertEquals(e, v.picker().pick(b.x + b.width/2 + 1, b.y + b.height/4));
+            }
+        }
+    }
+}
@@ -0,0 +1,432 @@
+/**
+ * Cli runs the puzzle tools from the command line, without BlueJ or a window.
+ * It never touches SlitherLink or SimpleCanvas, so no window is opened, and only png loads AWT classes,
+ * which it runs headless.
+ *
+ * Usage: java Cli COMMAND [-j threads] [options] ARGUMENTS
+ *
+ *   check INPUT...               checks the solution of each puzzle, read from the file of the same
+ *                                name ending in .sol: prints name, tab, the message from finished
+ *   check CORPUS.slc [RECORDS]   checks BatchVerifier records from RECORDS, or standard input
+ *   solve [-time millis] INPUT...      prints name, result, nodes, milliseconds and the edge bitmap
+ *   count [-limit states] INPUT...     prints name and the exact number of solutions, or "unknown"
+ *   generate [-density d] [-seed s] SIZE COUNT OUTPUT
+ *                                makes COUNT unique puzzles into OUTPUT: a corpus if it ends in .slc,
+ *                                otherwise a directory of .txt files; prints name, size and numbers
+ *   png [-pitch p] INPUT... DIRECTORY  draws each puzzle into DIRECTORY as a PNG with dots p pixels apart
+ *                                (16 by default), named after the puzzle; prints name and the PNG file
+ *   bench [options]              runs Benchmark with the same options
+ *
+ * An INPUT is a puzzle file, a glob such as puzzles/*.txt (quoted, so the shell leaves it alone),
+ * or a corpus ending in .slc, whose puzzles are named file#index.
+ * Inputs are handled on -j threads, one per core by default, and printed in order, one
+ * tab-separated line each. A solution bitmap is hex, as read by BatchVerifier, and a .sol file holds one.
+ * The exit status is 0 on success, 1 if any input failed, and 2 for a bad command line.
+ *
+ * @author Jaimin Kirankumar Kerai
+ * @version 1.0
+ */
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+public class Cli
+{
+    private PrintWriter out;         // where the results are printed
+    private int threads;             // the number of threads to use
+    private volatile boolean failed; // true once any input has failed
+
+    /**
+     * One puzzle to work on: a file, or a puzzle in a corpus.
+     */
+    private static class Input
+    {
+        String name;      // the name printed for the puzzle
+        String file;      // the puzzle file, or null for a puzzle in a corpus
+        Corpus corpus;    // the corpus holding the puzzle, or null
+        int index;        // the index of the puzzle in corpus
+
+        /**
+         * Reads the puzzle.
+         */
+        Puzzle load()
+        {
+            return corpus != null ? corpus.get(index) : new Puzzle(file);
+        }
+    }
+
+    /**
+     * Thrown for a bad command line.
+     */
+    private static class UsageException extends Exception
+    {
+        private static final long serialVersionUID = 1L;
+
+        UsageException(String message)
+        {
+            super(message);
+        }
+    }
+
+    /**
+     * Creates a command line tool that prints to out, using threads threads.
+     */
+    private Cli(PrintWriter out, int threads)
+    {
+        this.out = out;
+        this.threads = threads;
+    }
+
+    /**
+     * Runs the command in args, and exits with its status.
+     */
+    public static void main(String[] args)
+    {
+        PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)));
+        int status;
+        try {
+            status = run(args, out);
+        } catch (UsageException e) {
+            System.err.println("Cli: " + e.getMessage());
+            System.err.println("usage: java Cli check|solve|count|generate|png|bench [-j threads] [options] arguments");
+            status = 2;
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Cli: " + e.getMessage());
+            status = 1;
+        } catch (RuntimeException e) {
+            System.err.println("Cli: " + (e.getMessage() != null ? e.getMessage() : e.toString()));
+            status = 1;
+        }
+        out.flush();
+        System.exit(status);
+    }
+
+    /**
+     * Runs the command in args, printing to out, and returns the exit status.
+     */
+    static int run(String[] args, PrintWriter out) throws IOException, UsageException
+    {
+        if (args.length == 0){
+            throw new UsageException("no command");
+        }
+        String command = args[0];
+        if (command.equals("bench")){
+            Benchmark b;
+            try {
+                b = Benchmark.parse(Arrays.copyOfRange(args, 1, args.length));
+            } catch (IllegalArgumentException e) {
+                throw new UsageException(e.getMessage());
+            }
+            b.runAll();
+            return 0;
+        }
+        // the options come first, each with a value; nothing after them may start with -
+        List<String> rest = new ArrayList<>(Arrays.asList(args).subList(1, args.length));
+        int threads = Runtime.getRuntime().availableProcessors();
+        long millis = Long.MAX_VALUE;
+        int limit = FrontierCounter.MAX_STATES;
+        double density = 0.5;
+        long seed = 1;
+        int pitch = 16;
+        while (!rest.isEmpty() && rest.get(0).startsWith("-")){
+            String option = rest.remove(0);
+            if (rest.isEmpty()){
+                throw new UsageException("no value for " + option);
+            }
+            String value = rest.remove(0);
+            try {
+                if (option.equals("-j")) threads = Integer.parseInt(value);
+                else if (option.equals("-time")) millis = Long.parseLong(value);
+                else if (option.equals("-limit")) limit = Integer.parseInt(value);
+                else if (option.equals("-density")) density = Double.parseDouble(value);
+                else if (option.equals("-seed")) seed = Long.parseLong(value);
+                else if (option.equals("-pitch")) pitch = Integer.parseInt(value);
+                else throw new UsageException("unknown option " + option);
+            } catch (NumberFormatException e) {
+                throw new UsageException("bad value " + value + " for " + option);
+            }
+        }
+        for (String arg : rest){
+            if (arg.startsWith("-")){
+                throw new UsageException("option " + arg + " must come before the arguments");
+            }
+        }
+        if (threads < 1){
+            throw new UsageException("-j must be at least 1");
+        }
+        Cli cli = new Cli(out, threads);
+        if (command.equals("check")){
+            if (!rest.isEmpty() && rest.get(0).endsWith(".slc")){
+                if (rest.size() > 2) throw new UsageException("check takes one corpus and one records file");
+                cli.checkRecords(rest.get(0), rest.size() == 2 ? rest.get(1) : null);
+            } else {
+                cli.check(inputs(rest));
+            }
+        } else if (command.equals("solve")){
+            cli.solve(inputs(rest), millis);
+        } else if (command.equals("count")){
+            cli.count(inputs(rest), limit);
+        } else if (command.equals("generate")){
+            if (rest.size() != 3) throw new UsageException("generate takes SIZE COUNT OUTPUT");
+            int size, count;
+            try {
+                size = Integer.parseInt(rest.get(0));
+                count = Integer.parseInt(rest.get(1));
+            } catch (NumberFormatException e) {
+                throw new UsageException("SIZE and COUNT must be numbers");
+            }
+            if (size < 2) throw new UsageException("SIZE must be at least 2");
+            if (count < 0) throw new UsageException("COUNT must not be negative");
+            if (!(density >= 0 && density <= 1)) throw new UsageException("-density must be between 0 and 1");
+            cli.generate(size, count, density, seed, rest.get(2));
+        } else if (command.equals("png")){
+            if (rest.size() < 2) throw new UsageException("png takes INPUT... DIRECTORY");
+            if (pitch < 4) throw new UsageException("-pitch must be at least 4");
+            cli.png(inputs(rest.subList(0, rest.size()-1)), pitch, rest.get(rest.size()-1));
+        } else {
+            throw new UsageException("unknown command " + command);
+        }
+        return cli.failed ? 1 : 0;
+    }
+
+    /**
+     * Checks each puzzle against the solution in the file of the same name ending in .sol.
+     */
+    private void check(List<Input> inputs)
+    {
+        each(inputs, input -> {
+            if (input.file == null){
+                throw new IllegalArgumentException("no .sol file for a puzzle in a corpus; check records instead");
+            }
+            String solution = input.file.replaceFirst("(\\.txt)?$", ".sol");
+            try {
+                String bitmap = new String(Files.readAllBytes(Paths.get(solution)), StandardCharsets.US_ASCII).trim();
+                return BatchVerifier.verify(input.load(), bitmap);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Checks the BatchVerifier records in the file records, or standard input if it is null,
+     * against the puzzles in the corpus.
+     */
+    private void checkRecords(String corpus, String records) throws IOException
+    {
+        BufferedReader in = records == null
+            ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.US_ASCII))
+            : Files.newBufferedReader(Paths.get(records), StandardCharsets.US_ASCII);
+        try {
+            new BatchVerifier(Corpus.open(corpus), threads).verify(in, out);
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Solves each puzzle, taking at most millis milliseconds over each.
+     */
+    private void solve(List<Input> inputs, long millis)
+    {
+        each(inputs, input -> {
+            Puzzle p = input.load();
+            Search search = new Search(p);
+            if (millis != Long.MAX_VALUE) search.setTimeLimit(millis);
+            long start = System.nanoTime();
+            Solver.Result result = search.solve();
+            long took = (System.nanoTime() - start) / 1000000;
+            String bitmap = result == Solver.Result.SOLVED ? BatchVerifier.encode(p) : "";
+            return result + "\t" + search.getNodes() + "\t" + took + "\t" + bitmap;
+        });
+    }
+
+    /**
+     * Counts the solutions of each puzzle, keeping at most limit states at once.
+     */
+    private void count(List<Input> inputs, int limit)
+    {
+        each(inputs, input -> {
+            Puzzle p = input.load();
+            if (p.size() > FrontierCounter.MAX_SIZE) return "unknown";
+            BigInteger count = new FrontierCounter(p, limit).count();
+            return count == null ? "unknown" : count.toString();
+        });
+    }
+
+    /**
+     * Makes count puzzles of the given size and density from seed, and writes them to output:
+     * a corpus if its name ends in .slc, otherwise a directory of puzzle files.
+     */
+    private void generate(int size, int count, double density, long seed, String output) throws IOException
+    {
+        List<Puzzle> puzzles = inPool(() -> new Generator(size, density).generate(count, seed));
+        List<String> names = new ArrayList<>();
+        if (output.endsWith(".slc")){
+            Corpus.write(output, puzzles);
+            for (int i = 0; i < count; i++){
+                names.add(output + "#" + i);
+            }
+        } else {
+            Files.createDirectories(Paths.get(output));
+            for (int i = 0; i < count; i++){
+                String name = Paths.get(output, "puzzle" + i + ".txt").toString();
+                Generator.write(puzzles.get(i), name);
+                names.add(name);
+            }
+        }
+        for (int i = 0; i < count; i++){
+            Puzzle p = puzzles.get(i);
+            int numbers = 0;
+            for (int[] row : p.getPuzzle()){
+                for (int number : row){
+                    if (number >= 0) numbers += 1;
+                }
+            }
+            out.println(names.get(i) + "\t" + size + "\t" + numbers);
+        }
+    }
+
+    /**
+     * Draws each puzzle into directory as a PNG with dots pitch pixels apart,
+     * named after its file, or after its corpus and index.
+     */
+    private void png(List<Input> inputs, int pitch, String directory) throws IOException
+    {
+        if (System.getProperty("java.awt.headless") == null){
+            System.setProperty("java.awt.headless", "true");
+        }
+        Files.createDirectories(Paths.get(directory));
+        PngExporter exporter = new PngExporter(pitch);
+        each(inputs, input -> {
+            String name = input.file != null ? Paths.get(input.file).getFileName().toString().replaceFirst("\\.txt$", "")
+                                             : Paths.get(input.name.replace('#', '-')).getFileName().toString().replaceFirst("\\.slc-", "-");
+            Path file = Paths.get(directory, name + ".png");
+            try {
+                exporter.write(input.load(), file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return file.toString();
+        });
+    }
+
+    /**
+     * Runs task on every input in parallel, and prints the name and result of each, in order.
+     * An input that fails is printed with its error, and makes the exit status 1.
+     */
+    private void each(List<Input> inputs, Function<Input, String> task)
+    {
+        inPool(() -> {
+            IntStream.range(0, inputs.size()).parallel().mapToObj(i -> {
+                Input input = inputs.get(i);
+                try {
+                    return input.name + "\t" + task.apply(input);
+                } catch (RuntimeException e) {
+                    failed = true;
+                    return input.name + "\terror: " + e.getMessage();
+                }
+            }).forEachOrdered(out::println);
+            return null;
+        });
+    }
+
+    /**
+     * Returns the result of work, run on this tool's threads.
+     */
+    private <T> T inPool(Callable<T> work)
+    {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            return pool.submit(work).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Returns the puzzles named by args: files, globs and corpora.
+     */
+    private static List<Input> inputs(List<String> args) throws IOException, UsageException
+    {
+        if (args.isEmpty()){
+            throw new UsageException("no puzzles given");
+        }
+        List<Input> inputs = new ArrayList<>();
+        for (String arg : args){
+            List<String> files = arg.matches(".*[*?\\[{].*") ? glob(arg) : Arrays.asList(arg);
+            if (files.isEmpty()){
+                throw new UsageException("nothing matches " + arg);
+            }
+            for (String file : files){
+                if (file.endsWith(".slc")){
+                    Corpus corpus = Corpus.open(file);
+                    for (int i = 0; i < corpus.size(); i++){
+                        Input input = new Input();
+                        input.name = file + "#" + i;
+                        input.corpus = corpus;
+                        input.index = i;
+                        inputs.add(input);
+                    }
+                } else {
+                    Input input = new Input();
+                    input.name = file;
+                    input.file = file;
+                    inputs.add(input);
+                }
+            }
+        }
+        return inputs;
+    }
+
+    /**
+     * Returns the files matching pattern, in order. The directories before the first
+     * wildcard are searched; ** crosses directories, other wildcards do not.
+     */
+    static List<String> glob(String pattern) throws IOException
+    {
+        String[] parts = pattern.split("/", -1);
+        int fixed = 0;
+        while (fixed < parts.length - 1 && !parts[fixed].matches(".*[*?\\[{].*")) fixed++;
+        Path base = Paths.get(fixed == 0 ? (pattern.startsWith("/") ? "/" : ".") : String.join("/", Arrays.copyOf(parts, fixed)));
+        int depth = pattern.contains("**") ? Integer.MAX_VALUE : parts.length - fixed;
+        PathMatcher matcher = base.getFileSystem().getPathMatcher("glob:" + pattern);
+        if (!Files.isDirectory(base)){
+            return new ArrayList<>();
+        }
+        try (Stream<Path> paths = Files.walk(base, depth)){
+            return paths.filter(Files::isRegularFile)
+                        .map(path -> base.toString().equals(".") && !pattern.startsWith("./") ? base.relativize(path) : path)
+                        .filter(matcher::matches)
+                        .map(Path::toString)
+                        .sorted()
+                        .collect(Collectors.toList());
+        }
+    }
+}
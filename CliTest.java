@@ -0,0 +1,144 @@
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import java.io.File;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+/**
+ * This class provides unit test cases for the Cli class.
+ * @author Jaimin Kirankumar Kerai
+ * @version 1.0
+ */
+public class CliTest
+{
+    private File dir;
+
+    /**
+     * Sets up the test fixture.
+     *
+     * Called before every test case method.
+     */
+    @Before
+    public void setUp() throws Exception
+    {
+        dir = Files.createTempDirectory("cli").toFile();
+    }
+
+    /**
+     * Tears down the test fixture.
+     *
+     * Called after every test case method.
+     */
+    @After
+    public void tearDown()
+    {
+        for (File f : dir.listFiles())
+            f.delete();
+        dir.delete();
+    }
+
+    // Returns the lines printed by the command in args, with its exit status first.
+    private String[] run(String... args) throws Exception
+    {
+        StringWriter out = new StringWriter();
+        PrintWriter writer = new PrintWriter(out);
+        int status = Cli.run(args, writer);
+        writer.flush();
+        return (status + "\n" + out).split("\n");
+    }
+
+    // Copies the bundled puzzle name into the test directory, and returns its path.
+    private String copy(String name) throws Exception
+    {
+        File f = new File(dir, name);
+        Files.copy(new File(name).toPath(), f.toPath());
+        return f.getPath();
+    }
+
+    @Test
+    public void testSolveAndCheck() throws Exception
+    {
+        String puzzle = copy("eg3_1.txt");
+        String[] solved = run("solve", "-j", "2", puzzle);
+        assertEquals("0", solved[0]);
+        String[] fields = solved[1].split("\t");
+        assertEquals(puzzle, fields[0]);
+        assertEquals("SOLVED", fields[1]);
+
+        Files.write(new File(dir, "eg3_1.sol").toPath(), Arrays.asList(fields[4]));
+        assertEquals(puzzle + "\tFinished", run("check", puzzle)[1]);
+        Files.write(new File(dir, "eg3_1.sol").toPath(), Arrays.asList("000000"));
+        assertEquals(puzzle + "\tWrong number", run("check", puzzle)[1]);
+    }
+
+    @Test
+    public void testGlobAndCount() throws Exception
+    {
+        String a = copy("eg2_2.txt"), b = copy("eg3_1.txt");
+        copy("eg5_1.txt");
+        String[] counted = run("count", dir.getPath() + "/eg[23]_*.txt");
+        assertEquals(3, counted.length);
+        assertEquals(a + "\t2", counted[1]);
+        assertEquals(b + "\t1", counted[2]);
+        assertEquals(3, run("count", dir.getPath() + "/*.txt").length - 1);
+    }
+
+    @Test
+    public void testGenerateCorpus() throws Exception
+    {
+        String corpus = new File(dir, "gen.slc").getPath();
+        String[] made = run("generate", "-seed", "3", "4", "3", corpus);
+        assertEquals(4, made.length);
+        assertTrue(made[3].startsWith(corpus + "#2\t4\t"));
+        String[] counted = run("count", corpus);
+        for (int i = 1; i < counted.length; i++)
+            assertEquals(corpus + "#" + (i-1) + "\t1", counted[i]);
+    }
+
+    @Test
+    public void testPng() throws Exception
+    {
+        String corpus = new File(dir, "gen.slc").getPath();
+        run("generate", "-seed", "3", "4", "2", corpus);
+        String puzzle = copy("eg3_1.txt");
+        String[] drawn = run("png", "-pitch", "20", corpus, puzzle, dir.getPath());
+        assertEquals("0", drawn[0]);
+        assertEquals(corpus + "#1\t" + new File(dir, "gen-1.png").getPath(), drawn[2]);
+        assertEquals(puzzle + "\t" + new File(dir, "eg3_1.png").getPath(), drawn[3]);
+        assertEquals(100, javax.imageio.ImageIO.read(new File(dir, "gen-0.png")).getWidth());
+        assertEquals(80, javax.imageio.ImageIO.read(new File(dir, "eg3_1.png")).getHeight());
+    }
+
+    @Test
+    public void testErrors() throws Exception
+    {
+        String[] missing = run("solve", new File(dir, "none.txt").getPath());
+        assertEquals("1", missing[0]);
+        assertTrue(missing[1].contains("\terror: "));
+        try {
+            run("frob");
+            fail();
+        } catch (Exception e) {}
+        try {
+            run("solve", "-x", "1", "eg3_1.txt");
+            fail();
+        } catch (Exception e) {}
+
+        // a bad command line is a usage error, never an input
+        String[][] bad = {{"solve", "-x"}, {"solve", "-time"}, {"solve", "eg3_1.txt", "-time", "5"},
+                          {"generate", "1", "3", dir.getPath()}, {"generate", "-density", "2", "4", "1", dir.getPath()},
+                          {"bench", "-time"}, {"bench", "-only", "clear", "-max"}, {"bench", "-time", "fast"}};
+        for (String[] args : bad){
+            try {
+                run(args);
+                fail(String.join(" ", args));
+            } catch (Exception e) {
+                assertEquals(String.join(" ", args), "UsageException", e.getClass().getSimpleName());
+            }
+        }
+    }
+}
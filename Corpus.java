@@ -0,0 +1,295 @@
+/**
+ * Corpus is a file holding many Slither Link puzzles, read by memory-mapping it.
+ * Opening a corpus reads only its header, however many puzzles it holds;
+ * each puzzle is decoded when it is asked for.
+ *
+ * The file starts with a 32-byte header: the 8 bytes "SLCORPUS", the format version (an int),
+ * the number of puzzles (an int), the position of the last index block (a long, 0 if there is none)
+ * and 8 reserved bytes.
+ * The rest of the file is what each append wrote: its puzzles, each as its size (an int)
+ * and then its numbers in row order, packed 3 bits to a square as the number plus 1, lowest bits first,
+ * followed by an index block: the number of the block's first puzzle (an int), the number of puzzles
+ * in the block (an int), the position of the block before (a long, 0 for the first block),
+ * and the position of each of the block's puzzles (a long each).
+ * All values are little-endian.
+ *
+ * Appending never writes over anything already in the file. The new puzzles and their index block
+ * go after the end of the file and are forced to disk, and only then does the header change to
+ * take them in, so a corpus whose append fails part way still holds every puzzle it held before.
+ * Opening a corpus reads its header and the start of each index block.
+ * A corpus may be read by several threads at once, but not while appending.
+ * The whole file is mapped at once, so a corpus can be at most 2GB.
+ *
+ * @author Jaimin Kirankumar Kerai
+ * @version 1.0
+ */
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+
+public class Corpus
+{
+    private static final byte[] MAGIC = "SLCORPUS".getBytes(StandardCharsets.US_ASCII);
+    private static final int VERSION = 2;
+    private static final int HEADER = 32;        // the length of the header
+    private static final int BLOCK = 16;         // the length of the start of an index block
+
+    private Path path;          // the corpus file
+    private ByteBuffer map;     // the whole file, mapped read-only
+    private int count;          // the number of puzzles
+    private long lastBlock;     // the position of the last index block, 0 if there is none
+    private int[] blockFirst;   // the number of the first puzzle in each index block, in order
+    private int[] blockOffsets; // the position of the puzzle positions in each index block
+
+    /**
+     * Opens the corpus in filename.
+     */
+    private Corpus(String filename) throws IOException
+    {
+        path = Paths.get(filename);
+        remap();
+    }
+
+    /**
+     * Returns the corpus in filename, opened for reading and appending.
+     */
+    public static Corpus open(String filename) throws IOException
+    {
+        return new Corpus(filename);
+    }
+
+    /**
+     * Creates an empty corpus in filename, replacing any file already there, and returns it.
+     */
+    public static Corpus create(String filename) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)){
+            writeHeader(channel, 0, 0);
+        }
+        return new Corpus(filename);
+    }
+
+    /**
+     * Returns the number of puzzles in the corpus.
+     */
+    public int size()
+    {
+        return count;
+    }
+
+    /**
+     * Returns puzzle i of the corpus, with an empty solution.
+     */
+    public Puzzle get(int i)
+    {
+        return new Puzzle(getNumbers(i));
+    }
+
+    /**
+     * Returns the size of puzzle i.
+     */
+    public int puzzleSize(int i)
+    {
+        return map.getInt(offset(i));
+    }
+
+    /**
+     * Returns the numbers of puzzle i, -1 for an empty square.
+     */
+    public int[][] getNumbers(int i)
+    {
+        int pos = offset(i);
+        int n = map.getInt(pos);
+        pos += 4;
+        int[][] numbers = new int[n][n];
+        int bit = 0;
+        for (int r = 0; r < n; r++){
+            for (int c = 0; c < n; c++){
+                int bits = map.get(pos + (bit >> 3)) & 0xff;
+                if ((bit & 7) > 5){
+                    bits |= (map.get(pos + (bit >> 3) + 1) & 0xff) << 8;
+                }
+                numbers[r][c] = ((bits >> (bit & 7)) & 7) - 1;
+                bit += 3;
+            }
+        }
+        return numbers;
+    }
+
+    /**
+     * Adds puzzles to the end of the corpus.
+     * Only the numbers of each puzzle are stored, not its solution.
+     */
+    public void append(Collection<Puzzle> puzzles) throws IOException
+    {
+        if (puzzles.isEmpty()){
+            return;
+        }
+        long[] offsets = new long[puzzles.size()];
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)){
+            ByteBuffer out = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+            long pos = channel.size();
+            channel.position(pos);
+            int i = 0;
+            for (Puzzle p : puzzles){
+                int n = p.size();
+                int length = 4 + (3*n*n + 7) / 8;
+                out = reserve(channel, out, length);
+                offsets[i++] = pos;
+                encode(p.getPuzzle(), out);
+                pos += length;
+            }
+            long block = pos;
+            out = reserve(channel, out, BLOCK);
+            out.putInt(count).putInt(offsets.length).putLong(lastBlock);
+            for (long offset : offsets){
+                out = reserve(channel, out, 8);
+                out.putLong(offset);
+            }
+            flush(channel, out);
+            channel.force(false);
+            writeHeader(channel, count + offsets.length, block);
+            channel.force(false);
+        }
+        remap();
+    }
+
+    /**
+     * Writes puzzles to a new corpus in filename, replacing any file already there.
+     */
+    public static void write(String filename, Collection<Puzzle> puzzles) throws IOException
+    {
+        create(filename).append(puzzles);
+    }
+
+    /**
+     * Returns the position in the file of puzzle i.
+     */
+    private int offset(int i)
+    {
+        if (i < 0 || i >= count){
+            throw new IndexOutOfBoundsException("puzzle " + i + " of " + count);
+        }
+        int low = 0, high = blockFirst.length - 1;
+        while (low < high){
+            int middle = (low + high + 1) >>> 1;
+            if (blockFirst[middle] <= i) low = middle;
+            else high = middle - 1;
+        }
+        return (int) map.getLong(blockOffsets[low] + 8*(i - blockFirst[low]));
+    }
+
+    /**
+     * Maps the file again and reads its header.
+     */
+    private void remap() throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)){
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE){
+                throw new IOException(path + " is larger than 2GB");
+            }
+            map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        for (int i = 0; i < MAGIC.length; i++){
+            if (map.limit() < HEADER || map.get(i) != MAGIC[i]){
+                throw new IOException(path + " is not a puzzle corpus");
+            }
+        }
+        if (map.getInt(8) != VERSION){
+            throw new IOException(path + " has corpus version " + map.getInt(8) + ", not " + VERSION);
+        }
+        count = map.getInt(12);
+        lastBlock = map.getLong(16);
+        ArrayList<Integer> firsts = new ArrayList<>(), positions = new ArrayList<>();
+        int next = count;
+        for (long block = lastBlock; block != 0; block = map.getLong((int) block + 8)){
+            if (block < HEADER || block + BLOCK > map.limit()){
+                throw new IOException(path + " has a damaged index");
+            }
+            int first = map.getInt((int) block), entries = map.getInt((int) block + 4);
+            long previous = map.getLong((int) block + 8);
+            if (first < 0 || entries < 0 || (long) first + entries != next || previous >= block
+                || block + BLOCK + 8L*entries > map.limit()){
+                throw new IOException(path + " has a damaged index");
+            }
+            firsts.add(first);
+            positions.add((int) block + BLOCK);
+            next = first;
+        }
+        if (next != 0){
+            throw new IOException(path + " has a damaged index");
+        }
+        blockFirst = new int[firsts.size()];
+        blockOffsets = new int[firsts.size()];
+        for (int b = 0; b < blockFirst.length; b++){
+            blockFirst[b] = firsts.get(blockFirst.length-1 - b);
+            blockOffsets[b] = positions.get(blockFirst.length-1 - b);
+        }
+    }
+
+    /**
+     * Writes the header for a corpus of count puzzles whose last index block is at lastBlock.
+     */
+    private static void writeHeader(FileChannel channel, int count, long lastBlock) throws IOException
+    {
+        ByteBuffer header = ByteBuffer.allocate(HEADER).order(ByteOrder.LITTLE_ENDIAN);
+        header.put(MAGIC).putInt(VERSION).putInt(count).putLong(lastBlock).putLong(0);
+        header.flip();
+        channel.position(0);
+        while (header.hasRemaining()) channel.write(header);
+    }
+
+    /**
+     * Puts the size and packed numbers of a puzzle into out.
+     */
+    private static void encode(int[][] numbers, ByteBuffer out)
+    {
+        out.putInt(numbers.length);
+        int bits = 0, held = 0;
+        for (int[] row : numbers){
+            for (int k : row){
+                bits |= (k+1) << held;
+                held += 3;
+                if (held >= 8){
+                    out.put((byte) bits);
+                    bits >>>= 8;
+                    held -= 8;
+                }
+            }
+        }
+        if (held > 0) out.put((byte) bits);
+    }
+
+    /**
+     * Returns a buffer with room for length more bytes, writing out what out holds if it is too full.
+     */
+    private static ByteBuffer reserve(FileChannel channel, ByteBuffer out, int length) throws IOException
+    {
+        if (out.remaining() < length){
+            flush(channel, out);
+            if (out.capacity() < length){
+                out = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Writes out everything in out to the channel, and empties out.
+     */
+    private static void flush(FileChannel channel, ByteBuffer out) throws IOException
+    {
+        out.flip();
+        while (out.hasRemaining()) channel.write(out);
+        out.clear();
+    }
+}
@@ -0,0 +1,114 @@
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * This class provides unit test cases for the Corpus class.
+ * @author Jaimin Kirankumar Kerai
+ * @version 1.0
+ */
+public class CorpusTest
+{
+    private File file;
+    private ArrayList<Puzzle> puzzles;
+
+    /**
+     * Sets up the test fixture.
+     *
+     * Called before every test case method.
+     */
+    @Before
+    public void setUp() throws IOException
+    {
+        file = File.createTempFile("corpus", ".slc");
+        puzzles = new ArrayList<>();
+        for (String f : new String[] {"eg2_1.txt", "eg3_1.txt", "eg5_2.txt", "eg7_1.txt", "eg10_1.txt"})
+            puzzles.add(new Puzzle(f));
+    }
+
+    /**
+     * Tears down the test fixture.
+     *
+     * Called after every test case method.
+     */
+    @After
+    public void tearDown()
+    {
+        file.delete();
+    }
+
+    @Test
+    public void testWriteAndRead() throws IOException
+    {
+        Corpus.write(file.getPath(), puzzles);
+        Corpus c = Corpus.open(file.getPath());
+        assertEquals(puzzles.size(), c.size());
+        for (int i = 0; i < puzzles.size(); i++)
+        {
+            assertEquals(puzzles.get(i).size(), c.puzzleSize(i));
+            assertTrue(Arrays.deepEquals(puzzles.get(i).getPuzzle(), c.getNumbers(i)));
+            assertEquals(puzzles.get(i).toLines(), c.get(i).toLines());
+        }
+        try {
+            c.get(puzzles.size());
+            fail();
+        } catch (IndexOutOfBoundsException e) {}
+    }
+
+    @Test
+    public void testAppend() throws IOException
+    {
+        Corpus c = Corpus.create(file.getPath());
+        assertEquals(0, c.size());
+        c.append(puzzles.subList(0, 2));
+        assertEquals(2, c.size());
+        c.append(puzzles.subList(2, puzzles.size()));
+        c = Corpus.open(file.getPath());
+        assertEquals(puzzles.size(), c.size());
+        for (int i = 0; i < puzzles.size(); i++)
+            assertTrue(Arrays.deepEquals(puzzles.get(i).getPuzzle(), c.getNumbers(i)));
+    }
+
+    @Test
+    public void testAppendLeavesFileAlone() throws IOException
+    {
+        Corpus c = Corpus.create(file.getPath());
+        c.append(puzzles.subList(0, 2));
+        byte[] before = Files.readAllBytes(file.toPath());
+        c.append(puzzles.subList(2, puzzles.size()));
+        byte[] after = Files.readAllBytes(file.toPath());
+        // only the header changes; everything after it is written past the old end
+        assertTrue(Arrays.equals(Arrays.copyOfRange(before, 32, before.length),
+                                 Arrays.copyOfRange(after, 32, before.length)));
+
+        // an append that stopped before the header was written leaves the old puzzles readable
+        Files.write(file.toPath(), before);
+        Files.write(file.toPath(), new byte[100], java.nio.file.StandardOpenOption.APPEND);
+        c = Corpus.open(file.getPath());
+        assertEquals(2, c.size());
+        assertTrue(Arrays.deepEquals(puzzles.get(1).getPuzzle(), c.getNumbers(1)));
+        c.append(puzzles.subList(2, 3));
+        c = Corpus.open(file.getPath());
+        assertEquals(3, c.size());
+        for (int i = 0; i < 3; i++)
+            assertTrue(Arrays.deepEquals(puzzles.get(i).getPuzzle(), c.getNumbers(i)));
+    }
+
+    @Test
+    public void testNotACorpus() throws IOException
+    {
+        Files.write(file.toPath(), Arrays.asList("-1 0", "3 2"));
+        try {
+            Corpus.open(file.getPath());
+            fail();
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("not a puzzle corpus"));
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/**
+ * EdgePicker finds the edge of a Puzzle under a point on the display, in constant time.
+ * The dots are drawn pitch pixels apart, with Dot 0,0 at x0,y0.
+ * A point picks an edge if it is less than half a pitch from a dot:
+ * the edge leaving that dot in the direction the point lies, across or up and down,
+ * whichever is further. Points on a diagonal from the dot pick nothing.
+ *
+ * @author Jaimin Kirankumar Kerai
+ * @version 1.0
+ */
+class EdgePicker
+{
+    private Puzzle game; // the puzzle on display
+    private int x0, y0;  // the position of Dot 0,0
+    private int pitch;   // the distance between neighbouring dots
+
+    /**
+     * Creates a picker for game drawn with Dot 0,0 at x0,y0 and dots pitch pixels apart.
+     */
+    public EdgePicker(Puzzle game, int x0, int y0, int pitch)
+    {
+        this.game = game;
+        this.x0 = x0;
+        this.y0 = y0;
+        this.pitch = pitch;
+    }
+
+    /**
+     * Returns the index in game of the edge under the point x,y, or -1 if there is none.
+     */
+    public int pick(int x, int y)
+    {
+        int n = game.size();
+        int half = pitch / 2;
+        int c = Math.floorDiv(x - x0 + half, pitch);
+        int r = Math.floorDiv(y - y0 + half, pitch);
+        if (r < 0 || r > n || c < 0 || c > n){
+            return -1;
+        }
+        int dx = x - x0 - c*pitch;
+        int dy = y - y0 - r*pitch;
+        if (dx*dx + dy*dy >= half*half || Math.abs(dx) == Math.abs(dy)){
+            return -1;
+        }
+        if (Math.abs(dx) > Math.abs(dy)){
+            if (dx < 0) c--;
+            return c >= 0 && c < n ? game.horizontalEdge(r, c) : -1;
+        } else {
+            if (dy < 0) r--;
+            return r >= 0 && r < n ? game.verticalEdge(r, c) : -1;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This class provides unit test cases for the EdgePicker class.
+ * @author Jaimin Kirankumar Kerai
+ * @version 1.0
+ */
+public class EdgePickerTest
+{
+    private Puzzle p;
+    private EdgePicker picker;
+
+    /**
+     * Sets up the test fixture.
+     *
+     * Called before every test case method.
+     */
+    @Before
+    public void setUp()
+    {
+        p = new Puzzle("eg5_1.txt");
+        picker = new EdgePicker(p, 20, 20, 40);
+    }
+
+    @Test
+    public void testPick()
+    {
+        assertEquals(p.horizontalEdge(0, 0), picker.pick(30, 22));
+        assertEquals(p.horizontalEdge(0, 0), picker.pick(55, 18));
+        assertEquals(p.horizontalEdge(2, 3), picker.pick(145, 100));
+        assertEquals(p.verticalEdge(0, 0), picker.pick(20, 30));
+        assertEquals(p.verticalEdge(1, 4), picker.pick(182, 95));
+        assertEquals(p.verticalEdge(4, 5), picker.pick(220, 195));
+    }
+
+    @Test
+    public void testNothing()
+    {
+        assertEquals(-1, picker.pick(40, 40));    // the middle of a square
+        assertEquals(-1, picker.pick(30, 30));    // diagonal from a dot
+        assertEquals(-1, picker.pick(20, 20));    // on a dot
+        assertEquals(-1, picker.pick(10, 20));    // off the left of the grid
+        assertEquals(-1, picker.pick(20, 230));   // off the bottom of the grid
+        assertEquals(-1, picker.pick(-500, 60));
+        assertEquals(-1, picker.pick(100, 400));
+    }
+
+    @Test
+    public void testPitch()
+    {
+        EdgePicker zoomed = new EdgePicker(p, -100, 50, 100);
+        assertEquals(p.horizontalEdge(1, 2), zoomed.pick(120, 155));
+        assertEquals(p.verticalEdge(1, 2), zoomed.pick(95, 190));
+        assertEquals(-1, zoomed.pick(150, 200));
+    }
+
+    /**
+     * Compares every point against the distance test made from each dot in turn.
+     */
+    @Test
+    public void testEveryPoint()
+    {
+        int n = p.size();
+        for (int x = -40; x < (n+2)*40; x++){
+            for (int y = -40; y < (n+2)*40; y++){
+                int expected = -1;
+                for (int r = 0; r <= n; r++){
+                    for (int c = 0; c <= n; c++){
+                        int dx = x - (20+40*c), dy = y - (20+40*r);
+                        if (Math.sqrt(Math.pow(dx, 2) + Math.pow(dy, 2)) < 20 && Math.abs(dx) != Math.abs(dy)){
+                            if (Math.abs(dx) > Math.abs(dy)){
+                                int c1 = dx > 0 ? c : c-1;
+                                if (c1 >= 0 && c1 < n) expected = p.horizontalEdge(r, c1);
+                            } else {
+                                int r1 = dy > 0 ? r : r-1;
+                                if (r1 >= 0 && r1 < n) expected = p.verticalEdge(r1, c);
+                            }
+                        }
+                    }
+                }
+                assertEquals(expected, picker.pick(x, y));
+            }
+        }
+    }
+}
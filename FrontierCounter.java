@@ -0,0 +1,353 @@
+/**
+ * FrontierCounter counts the solutions of a Slither Link puzzle exactly, without searching.
+ * It sweeps the squares row by row, deciding the right and bottom edges of each in turn,
+ * and keeps the number of ways of reaching each state of the frontier: the staircase of dots
+ * between the squares done and the squares to come, and the edges along it.
+ * The work is linear in the number of rows for a fixed width, however many solutions there are.
+ *
+ * Each frontier dot is NONE (no line yet), OPEN or CLOSE (the end of a piece of line whose
+ * other end is further right or further left on the frontier), or DONE (two lines).
+ * The pieces of line never cross, so OPEN and CLOSE pair up like brackets.
+ * A state is packed into a long: two bits for each of the size+2 dots, one bit for each of the
+ * size+1 frontier edges, and a top bit set once the loop has been closed; so the size is at most 19.
+ * The states are kept in open-addressed tables, with each count kept in a long
+ * until it outgrows one; the number of states kept can be limited to bound the memory used.
+ *
+ * Lines and X's already in the puzzle are respected, so the count is of the ways to finish it.
+ *
+ * @author Jaimin Kirankumar Kerai
+ * @version 1.0
+ */
+import java.math.BigInteger;
+import java.util.Arrays;
+
+public class FrontierCounter
+{
+    public static final int MAX_SIZE = 19;          // the largest puzzle whose states fit in a long
+    public static final int MAX_STATES = 1 << 20;   // the default limit on the number of states kept
+
+    private static final int NONE = 0, OPEN = 1, CLOSE = 2, DONE = 3; // the states of a frontier dot
+    private static final long CLOSED = 1L << 63;                     // set once the loop is closed
+    private static final long EMPTY = -1;                            // no state: bits 62-63 are never both set
+
+    private Puzzle p;         // the puzzle being counted
+    private int n;            // the size of the puzzle
+    private int maxStates;    // the most states kept at once
+    private int peak;         // the most states kept at once so far
+
+    // The frontier dots are at positions 0 to n+1, and frontier edge k joins dots k and k+1.
+    // Before Square r,c the dots are r+1,0 .. r+1,c then r,c .. r,n; edge c is the left side
+    // of the square, and edge c+1 its top.
+
+    /**
+     * Creates a counter for p, keeping at most MAX_STATES states.
+     */
+    public FrontierCounter(Puzzle p)
+    {
+        this(p, MAX_STATES);
+    }
+
+    /**
+     * Creates a counter for p, keeping at most maxStates states.
+     * Throws an IllegalArgumentException if p is bigger than MAX_SIZE.
+     */
+    public FrontierCounter(Puzzle p, int maxStates)
+    {
+        if (p.size() > MAX_SIZE){
+            throw new IllegalArgumentException("size " + p.size() + " is more than " + MAX_SIZE);
+        }
+        this.p = p;
+        n = p.size();
+        this.maxStates = maxStates;
+    }
+
+    /**
+     * The states of the frontier, with the number of ways of reaching each.
+     */
+    private static class StateTable
+    {
+        long[] keys;       // the states, by open addressing; EMPTY for an unused slot
+        long[] counts;     // the count of each state, while it fits in a long
+        BigInteger[] big;  // the count of each state that has outgrown a long, or null
+        int size;          // the number of states
+
+        StateTable()
+        {
+            keys = new long[16];
+            counts = new long[16];
+            Arrays.fill(keys, EMPTY);
+        }
+
+        /**
+         * Returns the count of the state in slot i.
+         */
+        BigInteger count(int i)
+        {
+            return big != null && big[i] != null ? big[i] : BigInteger.valueOf(counts[i]);
+        }
+
+        /**
+         * Adds the count of the state in slot i of from to the count of key.
+         */
+        void add(long key, StateTable from, int i)
+        {
+            int slot = find(key);
+            BigInteger more = from.big != null ? from.big[i] : null;
+            if (keys[slot] == EMPTY){
+                keys[slot] = key;
+                counts[slot] = from.counts[i];
+                if (more != null) setBig(slot, more);
+                size += 1;
+                if (2*size > keys.length) grow();
+                return;
+            }
+            boolean small = more == null && (big == null || big[slot] == null);
+            long sum = counts[slot] + from.counts[i];
+            if (small && ((counts[slot] ^ sum) & (from.counts[i] ^ sum)) >= 0){
+                counts[slot] = sum;
+            } else {
+                setBig(slot, count(slot).add(from.count(i)));
+            }
+        }
+
+        /**
+         * Returns the slot holding key, or the empty slot where it belongs.
+         */
+        int find(long key)
+        {
+            int mask = keys.length - 1;
+            int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> 40) & mask;
+            while (keys[slot] != EMPTY && keys[slot] != key){
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        /**
+         * Sets the count of the state in slot i to a number too big for a long.
+         */
+        void setBig(int i, BigInteger count)
+        {
+            if (big == null) big = new BigInteger[keys.length];
+            big[i] = count;
+        }
+
+        /**
+         * Doubles the number of slots.
+         */
+        void grow()
+        {
+            long[] oldKeys = keys, oldCounts = counts;
+            BigInteger[] oldBig = big;
+            keys = new long[oldKeys.length*2];
+            counts = new long[keys.length];
+            big = oldBig == null ? null : new BigInteger[keys.length];
+            Arrays.fill(keys, EMPTY);
+            for (int i = 0; i < oldKeys.length; i++){
+                if (oldKeys[i] == EMPTY) continue;
+                int slot = find(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                counts[slot] = oldCounts[i];
+                if (oldBig != null) big[slot] = oldBig[i];
+            }
+        }
+
+        /**
+         * Removes every state, keeping the slots.
+         */
+        void clear()
+        {
+            Arrays.fill(keys, EMPTY);
+            if (big != null) Arrays.fill(big, null);
+            size = 0;
+        }
+    }
+
+    /**
+     * Returns the number of solutions of the puzzle, or null if counting them
+     * would take more than the limit on states.
+     */
+    public BigInteger count()
+    {
+        StateTable states = new StateTable(), next = new StateTable();
+        int start = states.find(0);
+        states.keys[start] = 0;
+        states.counts[start] = 1;
+        states.size = 1;
+        peak = 1;
+        // row -1 lies above the grid, with no numbers and no edges but the top of the grid;
+        // c = -1 is the start of a row, where its left edge is decided
+        for (int r = -1; r < n; r++){
+            for (int c = r < 0 ? 0 : -1; c < n; c++){
+                next.clear();
+                boolean fits = c < 0 ? startRow(states, next, r) : square(states, next, r, c);
+                if (!fits) return null;
+                StateTable swap = states;
+                states = next;
+                next = swap;
+            }
+        }
+        BigInteger count = BigInteger.ZERO;
+        for (int i = 0; i < states.keys.length; i++){
+            if (states.keys[i] != EMPTY && (states.keys[i] & CLOSED) != 0) count = count.add(states.count(i));
+        }
+        return count;
+    }
+
+    /**
+     * Returns the most states kept at once by the last count.
+     */
+    public int getPeakStates()
+    {
+        return peak;
+    }
+
+    /**
+     * Moves the frontier on to the start of row r: Dot r-1,n leaves, Dot r+1,0 joins at position 0,
+     * and the left edge of the row is decided. The states reached are added to next;
+     * returns false if there are too many.
+     */
+    private boolean startRow(StateTable states, StateTable next, int r)
+    {
+        int dots = 2*(n+2);
+        long dotMask = (1L << 2*(n+1)) - 1;
+        long edgeMask = (1L << n) - 1;
+        for (int i = 0; i < states.keys.length; i++){
+            long key = states.keys[i];
+            if (key == EMPTY) continue;
+            int leaving = dot(key, n+1);
+            if (leaving == OPEN || leaving == CLOSE) continue;
+            long shifted = (key & CLOSED) | (key & dotMask) << 2 | (key >>> dots & edgeMask) << dots+1;
+            for (int left = 0; left < 2; left++){
+                if (!allowed(p.verticalEdge(r, 0), left, key)) continue;
+                long state = left == 1 ? join(shifted, 0) : shifted;
+                if (state != EMPTY && !add(next, state | (long) left << dots, states, i)) return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Moves the frontier past Square r,c, deciding its right and bottom edges.
+     * Dot r,c leaves at position c+1, and Dot r+1,c+1 takes its place.
+     * The states reached are added to next; returns false if there are too many.
+     */
+    private boolean square(StateTable states, StateTable next, int r, int c)
+    {
+        int dots = 2*(n+2);
+        int number = r < 0 ? -1 : p.getNumber(r, c);
+        for (int i = 0; i < states.keys.length; i++){
+            long key = states.keys[i];
+            if (key == EMPTY) continue;
+            int leaving = dot(key, c+1);
+            if (leaving == OPEN || leaving == CLOSE) continue;
+            int left = (int) (key >>> dots+c) & 1, top = (int) (key >>> dots+c+1) & 1;
+            long base = setDot(key, c+1, NONE) & ~(3L << dots+c);
+            for (int right = 0; right < 2; right++){
+                // the right side of a square above the grid is not an edge
+                if (r < 0 ? right == 1 : !allowed(p.verticalEdge(r, c+1), right, key)) continue;
+                for (int bottom = 0; bottom < 2; bottom++){
+                    if (!allowed(p.horizontalEdge(r+1, c), bottom, key)) continue;
+                    if (number >= 0 && left + top + right + bottom != number) continue;
+                    long state = base | (long) bottom << dots+c | (long) right << dots+c+1;
+                    if (bottom == 1) state = join(state, c);
+                    if (right == 1 && state != EMPTY) state = join(state, c+1);
+                    if (state != EMPTY && !add(next, state, states, i)) return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds the ways of reaching the state in slot i of from to the ways of reaching state in next.
+     * Returns false if that makes more states than the limit.
+     */
+    private boolean add(StateTable next, long state, StateTable from, int i)
+    {
+        next.add(state, from, i);
+        peak = Math.max(peak, next.size);
+        return next.size <= maxStates;
+    }
+
+    /**
+     * Returns true iff edge e can be set to line (1 for a line, 0 for none) in state key:
+     * it agrees with the puzzle, and no line is added once the loop is closed.
+     */
+    private boolean allowed(int e, int line, long key)
+    {
+        int given = p.getEdge(e);
+        if (line == 1){
+            return given != Puzzle.CROSS && (key & CLOSED) == 0;
+        } else {
+            return given != Puzzle.LINE;
+        }
+    }
+
+    /**
+     * Returns key with a line added between the frontier dots at positions x and x+1,
+     * or EMPTY if that cannot lead to a solution.
+     */
+    private long join(long key, int x)
+    {
+        int a = dot(key, x), b = dot(key, x+1);
+        if (a == DONE || b == DONE){
+            return EMPTY;
+        } else if (a == NONE && b == NONE){
+            return setDot(setDot(key, x, OPEN), x+1, CLOSE);
+        } else if (a == NONE){
+            // x becomes the end of b's piece
+            return setDot(setDot(key, x, b), x+1, DONE);
+        } else if (b == NONE){
+            return setDot(setDot(key, x, DONE), x+1, a);
+        } else if (a == OPEN && b == CLOSE){
+            // the two ends of one piece: the loop closes, and must be the only one
+            key = setDot(setDot(key, x, DONE), x+1, DONE);
+            for (int k = 0; k < n+2; k++){
+                if (dot(key, k) == OPEN || dot(key, k) == CLOSE) return EMPTY;
+            }
+            return key | CLOSED;
+        } else if (a == CLOSE && b == OPEN){
+            // two pieces joined: their far ends already match
+            return setDot(setDot(key, x, DONE), x+1, DONE);
+        } else if (a == OPEN){
+            // both open: the far end of b's piece now pairs with the far end of a's
+            int end = partner(key, x+1);
+            return setDot(setDot(setDot(key, x, DONE), x+1, DONE), end, OPEN);
+        } else {
+            int end = partner(key, x);
+            return setDot(setDot(setDot(key, x, DONE), x+1, DONE), end, CLOSE);
+        }
+    }
+
+    /**
+     * Returns the position of the other end of the piece of line ending at position x.
+     */
+    private int partner(long key, int x)
+    {
+        int step = dot(key, x) == OPEN ? 1 : -1;
+        int depth = 0;
+        for (int k = x; ; k += step){
+            int d = dot(key, k);
+            if (d == OPEN) depth += step;
+            else if (d == CLOSE) depth -= step;
+            if (depth == 0) return k;
+        }
+    }
+
+    /**
+     * Returns the state of the frontier dot at position k.
+     */
+    private static int dot(long key, int k)
+    {
+        return (int) (key >>> 2*k) & 3;
+    }
+
+    /**
+     * Returns key with the frontier dot at position k set to state.
+     */
+    private static long setDot(long key, int k, int state)
+    {
+        return key & ~(3L << 2*k) | (long) state << 2*k;
+    }
+}
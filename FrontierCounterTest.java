@@ -0,0 +1,92 @@
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import java.math.BigInteger;
+
+/**
+ * This class provides unit test cases for the FrontierCounter class.
+ * @author Jaimin Kirankumar Kerai
+ * @version 1.0
+ */
+public class FrontierCounterTest
+{
+    /**
+     * Sets up the test fixture.
+     *
+     * Called before every test case method.
+     */
+    @Before
+    public void setUp()
+    {
+    }
+
+    // Returns a size x size puzzle with no numbers.
+    private Puzzle blank(int size)
+    {
+        int[][] numbers = new int[size][size];
+        for (int[] row : numbers)
+            java.util.Arrays.fill(row, -1);
+        return new Puzzle(numbers);
+    }
+
+    @Test
+    public void testBlank()
+    {
+        // the number of simple cycles in a grid of (size+1) x (size+1) dots
+        long[] cycles = {1, 13, 213, 9349, 1222363, 487150371};
+        for (int size = 1; size <= cycles.length; size++)
+            assertEquals(BigInteger.valueOf(cycles[size-1]), new FrontierCounter(blank(size)).count());
+    }
+
+    @Test
+    public void testPuzzles()
+    {
+        String[] files = {"eg2_1.txt", "eg2_2.txt", "eg3_1.txt", "eg5_2.txt", "eg7_1.txt", "eg10_1.txt"};
+        for (String f : files)
+        {
+            Puzzle p = new Puzzle(f);
+            assertEquals(f, Search.countSolutions(p, 100), new FrontierCounter(p).count().intValue());
+        }
+    }
+
+    @Test
+    public void testGivenEdges()
+    {
+        // the count is of the ways to finish what is on the board
+        Puzzle p = blank(2);
+        p.horizontalClick(0,0);
+        p.RightClickXV(0,0);
+        int count = new FrontierCounter(p).count().intValue();
+        assertEquals(Search.countSolutions(p, 100), count);
+        assertTrue(count < 13);
+
+        // a finished loop can only be finished one way
+        Puzzle q = new Puzzle("eg3_1.txt");
+        new Search(q).solve();
+        assertEquals(BigInteger.ONE, new FrontierCounter(q).count());
+        // and with an X on one of its lines, not at all
+        int e = 0;
+        while (q.getEdge(e) != Puzzle.LINE)
+            e++;
+        q.setEdge(e, Puzzle.CROSS);
+        assertEquals(BigInteger.ZERO, new FrontierCounter(q).count());
+    }
+
+    @Test
+    public void testLimits()
+    {
+        FrontierCounter f = new FrontierCounter(blank(6), 1000);
+        assertNull(f.count());
+        assertTrue(f.getPeakStates() > 1000);
+
+        f = new FrontierCounter(blank(6));
+        f.count();
+        assertTrue(f.getPeakStates() < 10000);
+
+        try {
+            new FrontierCounter(blank(FrontierCounter.MAX_SIZE + 1));
+            fail();
+        } catch (IllegalArgumentException e) {}
+    }
+}
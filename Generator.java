@@ -0,0 +1,238 @@
+/**
+ * Generator makes new Slither Link puzzles with exactly one solution.
+ * It draws a random simple loop, writes in the number for every square,
+ * then removes numbers one at a time, in random order, for as long as the
+ * puzzle still has only one solution and has more numbers than the target density.
+ *
+ * A uniqueness check that runs out of search nodes is tried once more with four times as many.
+ * The two tries share a TranspositionTable, so the second skips every subtree the first finished.
+ * A number is kept if the second try runs out too, so very sparse
+ * targets trade a few extra numbers for a bounded running time.
+ *
+ * Puzzles from the same size, density and seed are always the same.
+ * Generating several puzzles at once uses every core.
+ *
+ * @author Jaimin Kirankumar Kerai
+ * @version 1.0
+ */
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class Generator
+{
+    private int n;          // the size of the puzzles
+    private double density; // the fraction of squares that should keep their numbers
+    private long nodeLimit; // the most search nodes for the first try at each uniqueness check
+    private boolean tables; // true iff the tries at a uniqueness check share a TranspositionTable
+    private AtomicLong nodes; // the search nodes visited by every uniqueness check so far
+
+    /**
+     * Creates a generator of size x size puzzles, aiming to keep numbers in
+     * the given fraction of the squares (between 0 and 1). The size must be at least 2.
+     */
+    public Generator(int size, double density)
+    {
+        if (size < 2){
+            throw new IllegalArgumentException("size must be at least 2: " + size);
+        }
+        n = size;
+        this.density = density;
+        nodeLimit = 10000;
+        tables = true;
+        nodes = new AtomicLong();
+    }
+
+    /**
+     * Limits the first try at each uniqueness check to visiting at most nodes search nodes.
+     */
+    public void setNodeLimit(long nodes)
+    {
+        nodeLimit = nodes;
+    }
+
+    /**
+     * Shares a TranspositionTable between the tries at each uniqueness check if on is true,
+     * as is done unless this is called; otherwise the second try starts again from nothing.
+     */
+    public void setTables(boolean on)
+    {
+        tables = on;
+    }
+
+    /**
+     * Returns the number of search nodes visited by every uniqueness check so far.
+     */
+    public long getNodes()
+    {
+        return nodes.get();
+    }
+
+    /**
+     * Returns a new puzzle with exactly one solution, made from seed.
+     */
+    public Puzzle generate(long seed)
+    {
+        Random rnd = new Random(seed);
+        TranspositionTable table = tables ? new TranspositionTable(1 << 15) : null;
+        while (true){
+            Puzzle p = new Puzzle(randomLoop(rnd));
+            if (countSolutions(p, table) == 1){
+                removeNumbers(p, rnd, table);
+                return p;
+            }
+        }
+    }
+
+    /**
+     * Returns count new puzzles, made in parallel from seed.
+     * The i'th puzzle depends only on seed and i, not on the number of cores.
+     */
+    public List<Puzzle> generate(int count, long seed)
+    {
+        return IntStream.range(0, count).parallel()
+                        .mapToObj(i -> generate(seed + i * 0x9E3779B97F4A7C15L))
+                        .collect(Collectors.toList());
+    }
+
+    /**
+     * Writes the numbers of p to filename, in the form read by Puzzle.
+     */
+    public static void write(Puzzle p, String filename) throws IOException
+    {
+        Files.write(Paths.get(filename), p.toLines());
+    }
+
+    /**
+     * Returns the numbers of every square around a random simple loop.
+     * The loop is the boundary of a region grown one square at a time from two random squares side by side;
+     * a square is added only if the boundary stays a single loop, without holes or pinches.
+     * Starting from two squares means no square is ever surrounded, so every number is 3 or less.
+     */
+    private int[][] randomLoop(Random rnd)
+    {
+        int[][] empty = new int[n][n];
+        for (int[] row : empty){
+            java.util.Arrays.fill(row, -1);
+        }
+        Puzzle loop = new Puzzle(empty);
+        boolean[] inside = new boolean[n*n];
+        boolean[] listed = new boolean[n*n];
+        ArrayList<Integer> frontier = new ArrayList<>();
+        int r = rnd.nextInt(n), c = rnd.nextInt(n-1);
+        int[] start = rnd.nextBoolean() ? new int[] {r*n + c, r*n + c+1} : new int[] {c*n + r, (c+1)*n + r};
+        for (int sq : start){
+            toggleSquare(loop, sq);
+            inside[sq] = true;
+            listed[sq] = true;
+        }
+        for (int sq : start){
+            listNeighbours(sq, listed, frontier);
+        }
+        int area = 2;
+        int target = n*n * (35 + rnd.nextInt(30)) / 100;
+        for (int tries = 0; area < target && !frontier.isEmpty() && tries < 20*n*n; tries++){
+            int i = rnd.nextInt(frontier.size());
+            int sq = frontier.get(i);
+            toggleSquare(loop, sq);
+            if (loop.numBranching() == 0 && loop.numComponents() == 1){
+                inside[sq] = true;
+                area += 1;
+                frontier.set(i, frontier.get(frontier.size()-1));
+                frontier.remove(frontier.size()-1);
+                listNeighbours(sq, listed, frontier);
+            } else {
+                toggleSquare(loop, sq);
+            }
+        }
+        int[][] numbers = new int[n][n];
+        for (r = 0; r < n; r++){
+            for (c = 0; c < n; c++){
+                numbers[r][c] = loop.linesAround(r, c);
+            }
+        }
+        return numbers;
+    }
+
+    /**
+     * Returns the number of solutions of p, counting no further than 2,
+     * or -1 if both tries run out of nodes. The tries share table, unless it is null;
+     * its keys include the numbers, so what it holds from earlier checks is never wrongly matched.
+     */
+    private int countSolutions(Puzzle p, TranspositionTable table)
+    {
+        int count = -1;
+        for (int attempt = 0; count < 0 && attempt < 2; attempt++){
+            long limit = attempt == 0 || nodeLimit > Long.MAX_VALUE / 4 ? nodeLimit : 4*nodeLimit;
+            Search s = new Search(new Puzzle(p));
+            s.setTable(table);
+            s.setNodeLimit(limit);
+            count = s.count(2);
+            nodes.addAndGet(s.getNodes());
+        }
+        return count;
+    }
+
+    /**
+     * Adds the squares next to sq that have not been listed before to frontier.
+     */
+    private void listNeighbours(int sq, boolean[] listed, ArrayList<Integer> frontier)
+    {
+        int r = sq / n, c = sq % n;
+        int[][] next = {{r-1, c}, {r+1, c}, {r, c-1}, {r, c+1}};
+        for (int[] rc : next){
+            if (rc[0] >= 0 && rc[0] < n && rc[1] >= 0 && rc[1] < n && !listed[rc[0]*n + rc[1]]){
+                listed[rc[0]*n + rc[1]] = true;
+                frontier.add(rc[0]*n + rc[1]);
+            }
+        }
+    }
+
+    /**
+     * Toggles the four sides of square sq between LINE and UNKNOWN,
+     * which adds the square to the region inside the loop or takes it out.
+     */
+    private void toggleSquare(Puzzle loop, int sq)
+    {
+        int r = sq / n, c = sq % n;
+        int[] sides = {loop.horizontalEdge(r, c), loop.horizontalEdge(r+1, c),
+                       loop.verticalEdge(r, c), loop.verticalEdge(r, c+1)};
+        for (int e : sides){
+            loop.setEdge(e, loop.getEdge(e) == Puzzle.LINE ? Puzzle.UNKNOWN : Puzzle.LINE);
+        }
+    }
+
+    /**
+     * Removes numbers from p in random order while it keeps exactly one solution,
+     * until no more than the target fraction of squares have numbers.
+     * The uniqueness checks use table, unless it is null.
+     */
+    private void removeNumbers(Puzzle p, Random rnd, TranspositionTable table)
+    {
+        int[] order = new int[n*n];
+        for (int i = 0; i < order.length; i++){
+            int j = rnd.nextInt(i+1);
+            order[i] = order[j];
+            order[j] = i;
+        }
+        int numbers = n*n;
+        int target = (int) Math.round(density * n*n);
+        for (int sq : order){
+            if (numbers <= target) break;
+            int r = sq / n, c = sq % n;
+            int number = p.getNumber(r, c);
+            p.setNumber(r, c, -1);
+            if (countSolutions(p, table) == 1){
+                numbers -= 1;
+            } else {
+                p.setNumber(r, c, number);
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import java.util.List;
+
+/**
+ * This class provides unit test cases for the Generator class.
+ * @author Jaimin Kirankumar Kerai
+ * @version 1.0
+ */
+public class GeneratorTest
+{
+    private Generator g;
+
+    /**
+     * Sets up the test fixture.
+     *
+     * Called before every test case method.
+     */
+    @Before
+    public void setUp()
+    {
+        g = new Generator(5, 0.5);
+    }
+
+    @Test
+    public void testGenerate()
+    {
+        Puzzle p = g.generate(42);
+        assertEquals(5, p.size());
+        assertEquals(1, Search.countSolutions(p, 2));
+        int numbers = 0;
+        for (int[] row : p.getPuzzle())
+            for (int k : row)
+                if (k != -1) numbers++;
+        assertTrue(numbers < 25);
+
+        // the same seed gives the same puzzle
+        assertEquals(p.toLines(), g.generate(42).toLines());
+    }
+
+    @Test
+    public void testGenerateMany()
+    {
+        List<Puzzle> ps = g.generate(4, 7);
+        assertEquals(4, ps.size());
+        for (Puzzle p : ps)
+            assertEquals(1, Search.countSolutions(p, 2));
+        assertEquals(ps.get(2).toLines(), g.generate(4, 7).get(2).toLines());
+    }
+
+    @Test
+    public void testWrite() throws Exception
+    {
+        Puzzle p = g.generate(3);
+        java.io.File f = java.io.File.createTempFile("generated", ".txt");
+        f.deleteOnExit();
+        Generator.write(p, f.getPath());
+        Puzzle q = new Puzzle(f.getPath());
+        for (int i = 0; i < 5; i++)
+            assertTrue(java.util.Arrays.equals(p.getPuzzle()[i], q.getPuzzle()[i]));
+    }
+
+    @Test
+    public void testSmall()
+    {
+        Generator small = new Generator(2, 0.5);
+        for (long seed = 0; seed < 20; seed++){
+            Puzzle p = small.generate(seed);
+            assertEquals(2, p.size());
+            for (int[] row : p.getPuzzle())
+                for (int k : row)
+                    assertTrue(k <= 3);
+            assertEquals(1, Search.countSolutions(p, 2));
+        }
+        assertEquals(3, small.generate(3, 1).size());
+
+        try {
+            new Generator(1, 0.5);
+            fail("size 1 accepted");
+        } catch (IllegalArgumentException e) {
+        }
+    }
+}
@@ -0,0 +1,220 @@
+/**
+ * Journal records the changes made to the edges of a Puzzle, so that they can be undone and redone.
+ * Each change is one int: the edge shifted left 4 bits, then its old state in bits 2-3
+ * and its new state in bits 0-1, so edges are limited to 2^27.
+ *
+ * The changes are kept in a ring that grows as needed up to a limit;
+ * once it is full, the oldest change is forgotten for each new one.
+ * Positions in the journal count the changes kept and forgotten, so the same position
+ * is used again when changes that could have been redone are replaced by new ones.
+ *
+ * A checkpoint is the position in the low 32 bits and the generation in the high 32 bits.
+ * The generation goes up each time changes that could have been redone are replaced, and
+ * each time the journal is cleared. Where each replacement started is kept, so a checkpoint
+ * stays valid until a change before it is forgotten or replaced, or the journal is cleared.
+ * The check is exact unless the generation has gone up 2^32 times since the checkpoint was taken.
+ *
+ * @author Jaimin Kirankumar Kerai
+ * @version 1.0
+ */
+class Journal
+{
+    private int[] changes;   // the ring of changes; change i is at i & (changes.length-1)
+    private int limit;       // the most changes kept; a power of 2
+    private long first;      // the oldest change kept
+    private long position;   // changes first..position-1 can be undone
+    private long last;       // changes position..last-1 can be redone
+    private long generation; // goes up each time changes are replaced or the journal is cleared
+    private long cleared;    // the generation made by the last clear
+    private long[] cutGen;   // the generation made by each replacement still of interest, cutGen[0..cuts-1],
+    private long[] cutPos;   // and the position it started at; both go up with the index
+    private int cuts;        // the number of replacements kept
+
+    /**
+     * Creates an empty journal that keeps at most limit changes, rounded up to a power of 2.
+     */
+    public Journal(int limit)
+    {
+        changes = new int[16];
+        cutGen = new long[4];
+        cutPos = new long[4];
+        this.limit = Math.max(16, Integer.highestOneBit(limit - 1) << 1);
+    }
+
+    /**
+     * Returns the change that sets edge e from state old to state now.
+     */
+    public static int change(int e, int old, int now)
+    {
+        return e << 4 | old << 2 | now;
+    }
+
+    /**
+     * Returns the edge of change.
+     */
+    public static int edge(int change)
+    {
+        return change >>> 4;
+    }
+
+    /**
+     * Returns the state of the edge before change.
+     */
+    public static int oldState(int change)
+    {
+        return (change >> 2) & 3;
+    }
+
+    /**
+     * Returns the state of the edge after change.
+     */
+    public static int newState(int change)
+    {
+        return change & 3;
+    }
+
+    /**
+     * Records change as the next change, forgetting any changes that could have been redone.
+     */
+    public void record(int change)
+    {
+        if (position < last){
+            cut();
+        }
+        last = position;
+        if (last - first == changes.length){
+            if (changes.length < limit){
+                grow();
+            } else {
+                first += 1;
+            }
+        }
+        changes[(int) last & (changes.length-1)] = change;
+        last += 1;
+        position = last;
+    }
+
+    /**
+     * Steps back over the last change, and returns it; returns -1 if there is nothing to undo.
+     */
+    public int undo()
+    {
+        if (position == first){
+            return -1;
+        }
+        position -= 1;
+        return changes[(int) position & (changes.length-1)];
+    }
+
+    /**
+     * Steps forward over the next change, and returns it; returns -1 if there is nothing to redo.
+     */
+    public int redo()
+    {
+        if (position == last){
+            return -1;
+        }
+        position += 1;
+        return changes[(int) (position-1) & (changes.length-1)];
+    }
+
+    /**
+     * Returns the current position, counting every change ever recorded.
+     */
+    public long position()
+    {
+        return position;
+    }
+
+    /**
+     * Returns a checkpoint for the current position.
+     */
+    public long checkpoint()
+    {
+        return generation << 32 | (position & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Returns the position of checkpoint, or -1 if the changes before it have been
+     * forgotten or replaced since it was taken, or the journal has been cleared.
+     */
+    public long find(long checkpoint)
+    {
+        long taken = generation - ((generation - (checkpoint >>> 32)) & 0xFFFFFFFFL);
+        long at = first + (((checkpoint & 0xFFFFFFFFL) - first) & 0xFFFFFFFFL);
+        if (at > last || taken < cleared){
+            return -1;
+        }
+        int low = 0, high = cuts;
+        while (low < high){
+            int middle = (low + high) >>> 1;
+            if (cutGen[middle] > taken){
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low < cuts && cutPos[low] < at ? -1 : at;
+    }
+
+    /**
+     * Makes sure the journal can keep at least limit changes.
+     */
+    public void reserve(int limit)
+    {
+        while (this.limit < limit){
+            this.limit *= 2;
+        }
+    }
+
+    /**
+     * Forgets every change. Positions carry on from where they were,
+     * and every checkpoint taken before is no longer valid.
+     */
+    public void clear()
+    {
+        first = position;
+        last = position;
+        generation += 1;
+        cleared = generation;
+        cuts = 0;
+    }
+
+    /**
+     * Starts a new generation in which the changes from position on are replaced.
+     * Replacements that started at or after position are dropped, as this one covers them,
+     * and those that started before the first change kept are merged into the latest of them,
+     * so no more are kept than there are changes.
+     */
+    private void cut()
+    {
+        generation += 1;
+        while (cuts > 0 && cutPos[cuts-1] >= position){
+            cuts -= 1;
+        }
+        if (cuts > 0 && cutPos[cuts-1] < first){
+            cutGen[0] = cutGen[cuts-1];
+            cutPos[0] = cutPos[cuts-1];
+            cuts = 1;
+        }
+        if (cuts == cutGen.length){
+            cutGen = java.util.Arrays.copyOf(cutGen, cuts*2);
+            cutPos = java.util.Arrays.copyOf(cutPos, cuts*2);
+        }
+        cutGen[cuts] = generation;
+        cutPos[cuts] = position;
+        cuts += 1;
+    }
+
+    /**
+     * Doubles the size of the ring, keeping every change at the same position.
+     */
+    private void grow()
+    {
+        int[] bigger = new int[changes.length*2];
+        for (long i = first; i < last; i++){
+            bigger[(int) i & (bigger.length-1)] = changes[(int) i & (changes.length-1)];
+        }
+        changes = bigger;
+    }
+}
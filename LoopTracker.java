@@ -0,0 +1,227 @@
+/**
+ * LoopTracker follows the dots and line segments of a Puzzle as segments are added and removed,
+ * so that the shape of the current solution can be checked without tracing it.
+ * It keeps the degree of every dot and a union-find forest of the dots joined by segments.
+ * Adding a segment is a union; removing one relabels only the component it belonged to.
+ *
+ * Dot r,c is numbered r*(size+1)+c.
+ *
+ * @author Jaimin Kirankumar Kerai
+ * @version 1.0
+ */
+class LoopTracker
+{
+    private Puzzle p;          // the puzzle whose line segments are tracked
+    private int width;         // the number of dots in each row, i.e. size+1
+    private byte[] degree;     // the number of line segments meeting at each dot
+    private int[] parent;      // the union-find parent of each dot
+    private int[] count;       // the number of dots in the component, for dots that are roots
+    private int[] mark;        // the relabelling pass that last visited each dot
+    private int[] stack;       // the work list for relabelling
+    private int pass;          // the number of relabelling passes so far
+    private int lines;         // the number of line segments
+    private int dangling;      // the number of dots with exactly one segment
+    private int branching;     // the number of dots with three or more segments
+    private int components;    // the number of components that contain at least one segment
+
+    /**
+     * Creates a tracker for p, whose solution is assumed to be empty.
+     */
+    public LoopTracker(Puzzle p)
+    {
+        this.p = p;
+        width = p.size()+1;
+        degree = new byte[width*width];
+        parent = new int[width*width];
+        count = new int[width*width];
+        clear();
+    }
+
+    /**
+     * Forgets all line segments.
+     */
+    public void clear()
+    {
+        java.util.Arrays.fill(degree, (byte) 0);
+        for (int d = 0; d < parent.length; d++){
+            parent[d] = d;
+            count[d] = 1;
+        }
+        lines = 0;
+        dangling = 0;
+        branching = 0;
+        components = 0;
+    }
+
+    /**
+     * Records a new line segment between dots a and b.
+     */
+    public void addLine(int a, int b)
+    {
+        lines += 1;
+        if (degree[a] == 0) components += 1;
+        if (degree[b] == 0) components += 1;
+        changeDegree(a, 1);
+        changeDegree(b, 1);
+        int ra = find(a);
+        int rb = find(b);
+        if (ra != rb){
+            if (count[ra] < count[rb]){
+                int t = ra; ra = rb; rb = t;
+            }
+            parent[rb] = ra;
+            count[ra] += count[rb];
+            components -= 1;
+        }
+    }
+
+    /**
+     * Records that the line segment between dots a and b has gone.
+     * The puzzle must already show the segment as removed.
+     */
+    public void removeLine(int a, int b)
+    {
+        lines -= 1;
+        changeDegree(a, -1);
+        changeDegree(b, -1);
+        if (mark == null){
+            mark = new int[degree.length];
+            stack = new int[degree.length];
+        }
+        pass += 1;
+        int pieces = relabel(a) + relabel(b);
+        components += pieces - 1;
+    }
+
+    /**
+     * Returns the number of line segments meeting at dot d.
+     */
+    public int degree(int d)
+    {
+        return degree[d];
+    }
+
+    /**
+     * Returns true iff dots a and b are joined by a path of line segments.
+     */
+    public boolean connected(int a, int b)
+    {
+        return find(a) == find(b);
+    }
+
+    /**
+     * Returns the dot at the root of the component containing dot d.
+     */
+    public int root(int d)
+    {
+        return find(d);
+    }
+
+    /**
+     * Returns the number of line segments.
+     */
+    public int lines()
+    {
+        return lines;
+    }
+
+    /**
+     * Returns the number of dots with exactly one line segment.
+     */
+    public int dangling()
+    {
+        return dangling;
+    }
+
+    /**
+     * Returns the number of dots with three or more line segments.
+     */
+    public int branching()
+    {
+        return branching;
+    }
+
+    /**
+     * Returns the number of separate pieces of line.
+     */
+    public int components()
+    {
+        return components;
+    }
+
+    /**
+     * Returns true iff the line segments form exactly one closed loop.
+     */
+    public boolean isSingleLoop()
+    {
+        return lines > 0 && dangling == 0 && branching == 0 && components == 1;
+    }
+
+    /**
+     * Returns the root of the component containing dot d, halving the path on the way.
+     */
+    private int find(int d)
+    {
+        while (parent[d] != d){
+            parent[d] = parent[parent[d]];
+            d = parent[d];
+        }
+        return d;
+    }
+
+    /**
+     * Adds delta to the degree of dot d, keeping the dangling and branching totals up to date.
+     */
+    private void changeDegree(int d, int delta)
+    {
+        if (degree[d] == 1) dangling -= 1;
+        if (degree[d] >= 3) branching -= 1;
+        degree[d] += delta;
+        if (degree[d] == 1) dangling += 1;
+        if (degree[d] >= 3) branching += 1;
+    }
+
+    /**
+     * Makes start the root of every dot reachable from it along line segments,
+     * unless start was already reached in this pass.
+     * Returns 1 if a new component was labelled, 0 otherwise.
+     */
+    private int relabel(int start)
+    {
+        if (mark[start] == pass){
+            return 0;
+        }
+        mark[start] = pass;
+        parent[start] = start;
+        count[start] = 1;
+        if (degree[start] == 0){
+            return 0;
+        }
+        int top = 0;
+        stack[top++] = start;
+        while (top > 0){
+            int d = stack[--top];
+            int r = d / width, c = d % width;
+            top = visit(p.getHorizontal(r, c), d+1, start, top);
+            top = visit(p.getHorizontal(r, c-1), d-1, start, top);
+            top = visit(p.getVertical(r, c), d+width, start, top);
+            top = visit(p.getVertical(r-1, c), d-width, start, top);
+        }
+        return 1;
+    }
+
+    /**
+     * Adds dot d to the component rooted at root if line is true and d is not yet visited.
+     * Returns the new top of the stack.
+     */
+    private int visit(boolean line, int d, int root, int top)
+    {
+        if (line && mark[d] != pass){
+            mark[d] = pass;
+            parent[d] = root;
+            count[root] += 1;
+            stack[top++] = d;
+        }
+        return top;
+    }
+}
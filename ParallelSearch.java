@@ -0,0 +1,232 @@
+/**
+ * ParallelSearch solves a Slither Link puzzle using several cores.
+ * The top levels of the search tree are split into fork-join tasks on a work-stealing pool;
+ * each task works on its own copy of the board, and below the split depth runs a Search.
+ * The first task to find a solution cancels all the others.
+ * A search can be solved again after it finishes, for instance with a longer time limit.
+ * Every task shares one TranspositionTable, kept from one solve to the next,
+ * so solving again skips every subtree an earlier solve finished.
+ *
+ * @author Jaimin Kirankumar Kerai
+ * @version 1.0
+ */
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ParallelSearch
+{
+    private Puzzle p;                              // the puzzle being solved
+    private int threads;                           // the number of worker threads
+    private int splitDepth;                        // the number of levels split into tasks
+    private long timeLimit;                        // the most milliseconds to run for
+    private volatile boolean cancelled;            // true once cancel has been called
+    private AtomicReference<Puzzle> solution;      // the first solved board
+    private ConcurrentLinkedQueue<Search> running; // the searches that may need cancelling
+    private AtomicLong nodes;                      // the nodes visited by all tasks
+    private AtomicLong backtracks;                 // the failed branches in all tasks
+    private TranspositionTable table;              // the boards known to have no solution, made by the first solve
+
+    /**
+     * Creates a parallel search for p using threads worker threads.
+     */
+    public ParallelSearch(Puzzle p, int threads)
+    {
+        this.p = p;
+        this.threads = threads;
+        splitDepth = 32 - Integer.numberOfLeadingZeros(threads) + 2;
+        timeLimit = Long.MAX_VALUE;
+    }
+
+    /**
+     * Creates a parallel search for p using one worker thread per core.
+     */
+    public ParallelSearch(Puzzle p)
+    {
+        this(p, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Sets the number of levels of the search tree that are split into separate tasks.
+     * Level d has up to 2^d tasks.
+     */
+    public void setSplitDepth(int depth)
+    {
+        splitDepth = depth;
+    }
+
+    /**
+     * Limits the search to running for at most millis milliseconds.
+     */
+    public void setTimeLimit(long millis)
+    {
+        timeLimit = millis;
+    }
+
+    /**
+     * Stops the search as soon as possible; solve then returns ABORTED.
+     * If no solve is running, the next one is stopped. May be called from any thread.
+     */
+    public void cancel()
+    {
+        cancelled = true;
+        stopAll();
+    }
+
+    /**
+     * Returns the number of nodes visited by all the tasks in the last solve.
+     */
+    public long getNodes()
+    {
+        return nodes.get();
+    }
+
+    /**
+     * Returns the number of failed branches in all the tasks in the last solve.
+     */
+    public long getBacktracks()
+    {
+        return backtracks.get();
+    }
+
+    /**
+     * Solves the puzzle.
+     * Returns SOLVED, copying the solution onto the board; CONTRADICTION if there is no solution;
+     * or ABORTED if the time ran out or the search was cancelled.
+     */
+    public Solver.Result solve()
+    {
+        solution = new AtomicReference<>();
+        running = new ConcurrentLinkedQueue<>();
+        nodes = new AtomicLong();
+        backtracks = new AtomicLong();
+        if (table == null){
+            table = new TranspositionTable(1 << 16);
+        }
+        long now = System.currentTimeMillis();
+        long deadline = timeLimit >= Long.MAX_VALUE - now ? Long.MAX_VALUE : now + timeLimit;
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        Solver.Result result;
+        try {
+            result = pool.invoke(new Branch(new Puzzle(p), -1, Puzzle.UNKNOWN, 0, deadline));
+        } finally {
+            pool.shutdownNow();
+            cancelled = false;
+        }
+        Puzzle solved = solution.get();
+        if (solved != null){
+            for (int e = 0; e < p.numEdges(); e++){
+                p.setEdge(e, solved.getEdge(e));
+            }
+            return Solver.Result.SOLVED;
+        }
+        return result;
+    }
+
+    /**
+     * Cancels every search that is running.
+     */
+    private void stopAll()
+    {
+        if (running != null){
+            for (Search s : running){
+                s.cancel();
+            }
+        }
+    }
+
+    /**
+     * One node near the top of the search tree, with its own board.
+     */
+    private class Branch extends RecursiveTask<Solver.Result>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private Puzzle board;  // this task's copy of the board
+        private int edge;      // the edge this branch decides, or -1 at the root
+        private int state;     // the state this branch gives edge
+        private int depth;     // the level of this node in the tree
+        private long deadline; // the System.currentTimeMillis() at which to stop
+
+        Branch(Puzzle board, int edge, int state, int depth, long deadline)
+        {
+            this.board = board;
+            this.edge = edge;
+            this.state = state;
+            this.depth = depth;
+            this.deadline = deadline;
+        }
+
+        protected Solver.Result compute()
+        {
+            if (cancelled || solution.get() != null || System.currentTimeMillis() > deadline){
+                return Solver.Result.ABORTED;
+            }
+            Solver solver = new Solver(board);
+            if (edge >= 0) solver.assign(edge, state);
+            Solver.Result result = solver.solve();
+            nodes.incrementAndGet();
+            if (result == Solver.Result.SOLVED){
+                return found();
+            } else if (result != Solver.Result.STUCK){
+                backtracks.incrementAndGet();
+                return result;
+            } else if (table.contains(board)){
+                return Solver.Result.CONTRADICTION;
+            } else if (depth >= splitDepth){
+                return sequential();
+            }
+            int e = Search.chooseEdge(board);
+            Branch line = new Branch(new Puzzle(board), e, Puzzle.LINE, depth+1, deadline);
+            Branch cross = new Branch(new Puzzle(board), e, Puzzle.CROSS, depth+1, deadline);
+            line.fork();
+            Solver.Result second = cross.compute();
+            Solver.Result first = line.join();
+            if (first == Solver.Result.SOLVED || second == Solver.Result.SOLVED){
+                return Solver.Result.SOLVED;
+            } else if (first == Solver.Result.ABORTED || second == Solver.Result.ABORTED){
+                return Solver.Result.ABORTED;
+            } else {
+                table.add(board);
+                return Solver.Result.CONTRADICTION;
+            }
+        }
+
+        /**
+         * Finishes this branch with an ordinary Search on its own board.
+         */
+        private Solver.Result sequential()
+        {
+            Search search = new Search(board);
+            search.setTable(table);
+            if (deadline != Long.MAX_VALUE){
+                search.setTimeLimit(Math.max(0, deadline - System.currentTimeMillis()));
+            }
+            running.add(search);
+            if (cancelled || solution.get() != null){
+                search.cancel();
+            }
+            Solver.Result result = search.solve();
+            running.remove(search);
+            nodes.addAndGet(search.getNodes());
+            backtracks.addAndGet(search.getBacktracks());
+            return result == Solver.Result.SOLVED ? found() : result;
+        }
+
+        /**
+         * Offers this task's solved board as the solution, and stops the other tasks.
+         */
+        private Solver.Result found()
+        {
+            if (!AnalyzeSolution.finished(board).equals("Finished")){
+                return Solver.Result.CONTRADICTION;
+            }
+            if (solution.compareAndSet(null, board)){
+                stopAll();
+            }
+            return Solver.Result.SOLVED;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/**
+ * PatternTable holds every deduction that can be made from a square's number and the twelve edges
+ * around it: its four sides, and the two other edges at each of its corners.
+ * Within that window the number must be met exactly, and each corner must have no lines or two.
+ *
+ * A window is numbered in base 3, edge i contributing state * 3^i with the states of Puzzle,
+ * and an edge off the grid counting as CROSS. Edges 0-3 are the top, right, bottom and left sides;
+ * edges 4-11 are the other edges at the top left, top right, bottom right and bottom left corners,
+ * two per corner, in the order up, left; up, right; right, down; down, left.
+ *
+ * The table is filled once when the class is loaded, and takes 8 MB.
+ *
+ * @author Jaimin Kirankumar Kerai
+ * @version 1.0
+ */
+class PatternTable
+{
+    public static final int EDGES = 12;         // the number of edges in a window
+    public static final int WINDOWS = 531441;   // the number of windows, 3^12
+
+    private static final int[][] CORNERS = {{0, 3}, {0, 1}, {1, 2}, {2, 3}}; // the sides at each corner
+    private static final int[][] TABLE = new int[4][WINDOWS];               // the result for each number and window
+
+    static {
+        for (int number = 0; number < 4; number++){
+            fill(TABLE[number], number);
+        }
+    }
+
+    /**
+     * Returns what can still be true of the window around a square holding number, 0-3:
+     * bit i is set iff edge i can be a line, and bit 12+i iff it can be an X,
+     * in some way of filling in the unknown edges. Returns 0 if there is no way.
+     */
+    public static int lookup(int number, int window)
+    {
+        return TABLE[number][window];
+    }
+
+    /**
+     * Fills table for a square holding number. A window with an unknown edge
+     * combines the two windows with that edge set, which have higher numbers,
+     * so the windows are filled from the highest down.
+     */
+    private static void fill(int[] table, int number)
+    {
+        for (int window = WINDOWS-1; window >= 0; window--){
+            int rest = window, power = 1;
+            int i = 0;
+            while (i < EDGES && rest % 3 != Puzzle.UNKNOWN){
+                rest /= 3;
+                power *= 3;
+                i++;
+            }
+            if (i == EDGES){
+                table[window] = check(window, number);
+            } else {
+                table[window] = table[window + Puzzle.LINE*power] | table[window + Puzzle.CROSS*power];
+            }
+        }
+    }
+
+    /**
+     * Returns the result for a window with no unknown edges: the edges as they are if the number
+     * and the corners are satisfied, otherwise 0.
+     */
+    private static int check(int window, int number)
+    {
+        int lines = 0;
+        for (int i = 0, rest = window; i < EDGES; i++, rest /= 3){
+            if (rest % 3 == Puzzle.LINE) lines |= 1 << i;
+        }
+        if (Integer.bitCount(lines & 15) != number){
+            return 0;
+        }
+        for (int d = 0; d < 4; d++){
+            int degree = (lines >> CORNERS[d][0] & 1) + (lines >> CORNERS[d][1] & 1)
+                         + (lines >> (4 + 2*d) & 1) + (lines >> (5 + 2*d) & 1);
+            if (degree != 0 && degree != 2){
+                return 0;
+            }
+        }
+        return lines | (~lines & 0xFFF) << EDGES;
+    }
+}
@@ -0,0 +1,92 @@
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This class provides unit test cases for the PatternTable class.
+ * @author Jaimin Kirankumar Kerai
+ * @version 1.0
+ */
+public class PatternTableTest
+{
+    private static final int ALL = 0xFFF;   // every edge of a window
+    private static final int SIDES = 15;    // the four sides of the square
+
+    /**
+     * Sets up the test fixture.
+     *
+     * Called before every test case method.
+     */
+    @Before
+    public void setUp()
+    {
+    }
+
+    // Returns the window with the given edges set to state, and the rest unknown.
+    private int window(int state, int... edges)
+    {
+        int w = 0;
+        for (int i : edges){
+            int power = 1;
+            for (int k = 0; k < i; k++) power *= 3;
+            w += state * power;
+        }
+        return w;
+    }
+
+    // Returns the edges of result that must be lines.
+    private int lines(int result)
+    {
+        return ~(result >> PatternTable.EDGES) & ALL;
+    }
+
+    // Returns the edges of result that must be X's.
+    private int crosses(int result)
+    {
+        return ~result & ALL;
+    }
+
+    @Test
+    public void testEmptyWindow()
+    {
+        // a 0 rules out its sides; nothing is known about the other edges
+        int zero = PatternTable.lookup(0, 0);
+        assertEquals(SIDES, crosses(zero));
+        assertEquals(0, lines(zero));
+        // a 1, 2 or 3 alone forces nothing
+        for (int number = 1; number < 4; number++){
+            assertEquals(0, lines(PatternTable.lookup(number, 0)));
+            assertEquals(0, crosses(PatternTable.lookup(number, 0)));
+        }
+    }
+
+    @Test
+    public void testCorners()
+    {
+        // a 3 in the top left corner of the grid: its top and left are lines
+        int corner = window(Puzzle.CROSS, 4, 5);
+        assertEquals(1 | 8, lines(PatternTable.lookup(3, corner)));
+        // a 1 there: its top and left are X's
+        assertEquals(1 | 8 | 16 | 32, crosses(PatternTable.lookup(1, corner)));
+
+        // a line coming into the top left corner of a 3: both far sides are lines,
+        // the other edge at that corner is an X, and so are the outer edges at the bottom right
+        int result = PatternTable.lookup(3, window(Puzzle.LINE, 4));
+        assertEquals(2 | 4 | 16, lines(result));
+        assertEquals(32 | 256 | 512, crosses(result));
+    }
+
+    @Test
+    public void testContradiction()
+    {
+        // three X's around a 2
+        assertEquals(0, PatternTable.lookup(2, window(Puzzle.CROSS, 0, 1, 2)));
+        // a corner with three lines
+        assertEquals(0, PatternTable.lookup(2, window(Puzzle.LINE, 0, 4, 5)));
+        // a full window that works is returned as it is
+        int full = 1 | 8 | 128 | 2048;
+        int w = window(Puzzle.LINE, 0, 3, 7, 11) + window(Puzzle.CROSS, 1, 2, 4, 5, 6, 8, 9, 10);
+        assertEquals(full | (ALL & ~full) << PatternTable.EDGES, PatternTable.lookup(2, w));
+    }
+}
@@ -0,0 +1,144 @@
+/**
+ * PngExporter draws puzzles into PNG images without opening a window, for thumbnails
+ * of a puzzle catalog made on a server with no display. It draws what SlitherLink shows:
+ * the numbers, line segments and Red Xs, with the same highlighting, by way of BoardRenderer.
+ *
+ * An exporter can be used on many threads at once. Each thread draws into one image of its own,
+ * reused for every puzzle of the same size, and keeps its own PNG writer.
+ * Nothing is drawn smoothed, so the images hold only the few colours BoardRenderer uses,
+ * and are kept with a palette of those colours, which makes the PNGs half the size and quicker to write.
+ *
+ * @author Jaimin Kirankumar Kerai
+ * @version 1.0
+ */
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.IndexColorModel;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+
+public class PngExporter
+{
+    private int pitch;                              // the distance between neighbouring dots
+    private IndexColorModel palette;                // the colours drawn
+    private ThreadLocal<BufferedImage> images;      // the image each thread last drew into
+    private ThreadLocal<ImageWriter> writers;       // the PNG writer of each thread
+
+    /**
+     * Creates an exporter drawing puzzles with dots pitch pixels apart, on white.
+     */
+    public PngExporter(int pitch)
+    {
+        if (pitch < 4){
+            throw new IllegalArgumentException("pitch must be at least 4: " + pitch);
+        }
+        this.pitch = pitch;
+        Color[] colours = {Color.white, Color.black, Color.red, BoardRenderer.MET, BoardRenderer.DANGLING};
+        byte[] red = new byte[colours.length], green = new byte[colours.length], blue = new byte[colours.length];
+        for (int i = 0; i < colours.length; i++){
+            red[i] = (byte) colours[i].getRed();
+            green[i] = (byte) colours[i].getGreen();
+            blue[i] = (byte) colours[i].getBlue();
+        }
+        palette = new IndexColorModel(8, colours.length, red, green, blue);
+        images = new ThreadLocal<>();
+        writers = ThreadLocal.withInitial(() -> ImageIO.getImageWritersByFormatName("png").next());
+    }
+
+    /**
+     * Returns the width and height of the image of p.
+     */
+    public int imageSize(Puzzle p)
+    {
+        return (p.size()+1) * pitch;
+    }
+
+    /**
+     * Returns a new image of p.
+     */
+    public BufferedImage render(Puzzle p)
+    {
+        BufferedImage image = new BufferedImage(imageSize(p), imageSize(p), BufferedImage.TYPE_BYTE_INDEXED, palette);
+        draw(p, image);
+        return image;
+    }
+
+    /**
+     * Writes an image of p to file as a PNG.
+     */
+    public void write(Puzzle p, Path file) throws IOException
+    {
+        BufferedImage image = images.get();
+        if (image == null || image.getWidth() != imageSize(p)){
+            image = render(p);
+            images.set(image);
+        } else {
+            draw(p, image);
+        }
+        ImageWriter writer = writers.get();
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file));
+             ImageOutputStream stream = new MemoryCacheImageOutputStream(out)){
+            writer.setOutput(stream);
+            writer.write(image);
+        } finally {
+            writer.setOutput(null);
+        }
+    }
+
+    /**
+     * Writes an image of each puzzle to directory, as puzzle0.png, puzzle1.png and so on,
+     * using threads threads. Returns the files written, in the order of the puzzles.
+     */
+    public List<Path> writeAll(List<Puzzle> puzzles, Path directory, int threads) throws IOException
+    {
+        Files.createDirectories(directory);
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < puzzles.size(); i++){
+            files.add(directory.resolve("puzzle" + i + ".png"));
+        }
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            pool.submit(() -> IntStream.range(0, puzzles.size()).parallel().forEach(i -> {
+                try {
+                    write(puzzles.get(i), files.get(i));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            })).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException) throw ((UncheckedIOException) e.getCause()).getCause();
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        return files;
+    }
+
+    /**
+     * Draws p over the whole of image.
+     */
+    private void draw(Puzzle p, BufferedImage image)
+    {
+        Graphics2D g = image.createGraphics();
+        new BoardRenderer(p, Color.white).paint(g, pitch, 0, 0, image.getWidth(), image.getHeight());
+        g.dispose();
+    }
+}
@@ -0,0 +1,96 @@
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import javax.imageio.ImageIO;
+
+/**
+ * This class provides unit test cases for the PngExporter class.
+ * @author Jaimin Kirankumar Kerai
+ * @version 1.0
+ */
+public class PngExporterTest
+{
+    private File dir;
+    private PngExporter exporter;
+
+    /**
+     * Sets up the test fixture.
+     *
+     * Called before every test case method.
+     */
+    @Before
+    public void setUp() throws Exception
+    {
+        dir = Files.createTempDirectory("png").toFile();
+        exporter = new PngExporter(24);
+    }
+
+    /**
+     * Tears down the test fixture.
+     *
+     * Called after every test case method.
+     */
+    @After
+    public void tearDown()
+    {
+        for (File f : dir.listFiles())
+            f.delete();
+        dir.delete();
+    }
+
+    @Test
+    public void testRender()
+    {
+        Puzzle p = new Puzzle("eg5_1.txt");
+        p.horizontalClick(0, 0);
+        p.RightClickXV(2, 2);
+        BufferedImage image = exporter.render(p);
+        assertEquals(6*24, image.getWidth());
+        assertEquals(6*24, image.getHeight());
+        BufferedImage expected = new BufferedImage(6*24, 6*24, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = expected.createGraphics();
+        new BoardRenderer(p, Color.white).paint(g, 24, 0, 0, 6*24, 6*24);
+        g.dispose();
+        for (int y = 0; y < image.getHeight(); y++)
+            for (int x = 0; x < image.getWidth(); x++)
+                assertEquals(expected.getRGB(x, y), image.getRGB(x, y));
+    }
+
+    @Test
+    public void testWriteAll() throws Exception
+    {
+        List<Puzzle> puzzles = new ArrayList<>();
+        for (String name : new String[] {"eg3_1.txt", "eg5_1.txt", "eg10_1.txt", "eg3_1.txt", "eg7_1.txt"})
+            puzzles.add(new Puzzle(name));
+        puzzles.get(3).verticalClick(1, 1);
+        List<Path> files = exporter.writeAll(puzzles, dir.toPath(), 3);
+        assertEquals(5, files.size());
+        for (int i = 0; i < 5; i++){
+            assertEquals(new File(dir, "puzzle" + i + ".png").toPath(), files.get(i));
+            BufferedImage written = ImageIO.read(files.get(i).toFile());
+            BufferedImage expected = exporter.render(puzzles.get(i));
+            assertEquals(expected.getWidth(), written.getWidth());
+            for (int y = 0; y < written.getHeight(); y++)
+                for (int x = 0; x < written.getWidth(); x++)
+                    assertEquals(expected.getRGB(x, y), written.getRGB(x, y));
+        }
+    }
+
+    @Test
+    public void testPitch()
+    {
+        try {
+            new PngExporter(2);
+            fail();
+        } catch (IllegalArgumentException e) {}
+    }
+}
@@ -1,41 +1,81 @@
-
-
 /**
  * Puzzle maintains the internal representation of a square Slither Link puzzle.
  * 
  * @author Lyndon While and Jaimin Kirankumar Kerai (22718975)
  * @version 1.0
  */
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 
 public class Puzzle 
 {
+    public static final int UNKNOWN = 0; // the edge has neither a line nor a Red X
+    public static final int LINE    = 1; // the edge has a line segment on it
+    public static final int CROSS   = 2; // the edge has a Red X on it
+
+    private static final int HISTORY = 1 << 17; // the number of changes that can be undone
+
     private int[][] puzzle;         // the numbers in the squares, i.e. the puzzle definition
                                     // -1 if the square is empty, 0-3 otherwise
-    private boolean[][] horizontal; // the horizontal line segments in the current solution
-                                    // true if the segment is on, false otherwise
-    private boolean[][] vertical;   // the vertical line segments in the current solution
-                                    // true if the segment is on, false otherwise
-    private boolean[][] XClickH;    // the horizontal Red X's in the current solution
-                                    // true if the x is on, false otherwise
-    private boolean[][] XClickV;    // the vertical Red X's in the current solution
-                                    // true if the x is on, false otherwise                            
+    private long[] edges;           // the state of every edge in the current solution,
+                                    // packed 2 bits per edge (UNKNOWN, LINE or CROSS), 32 edges per word.
+                                    // Horizontal edge r,c is edge r*size()+c, and vertical edge r,c
+                                    // follows all the horizontal edges at (size()+1)*size()+r*(size()+1)+c
+                                    // The rest is made only when first needed, so a puzzle that is only
+                                    // stored, or only has its edges set and read, keeps just the edges.
+    private byte[] lineCount;       // the number of line segments around each square, square r,c at r*size()+c
+    private int[] bad;              // the squares whose number disagrees with lineCount, bad[0..numBad-1]
+    private int[] badPos;           // the position of each square in bad, -1 if the square is good
+    private int numBad;             // the number of squares in bad
+    private LoopTracker loops;      // the degrees of the dots and the pieces of line they form, null until needed
+    private Journal journal;        // the changes to the edges, for undo and redo, null until history is kept
+    private long hash;              // the Zobrist hash of the edges, 0 when they are all UNKNOWN
+    private long clueHash;          // the Zobrist hash of the size and the numbers
 
     /**
      * Creates the puzzle from file filename, and an  empty solution.
-     * filename is assumed to hold a valid puzzle.
+     * Throws an UncheckedIOException if the file cannot be read, whose cause is a
+     * PuzzleFormatException giving the line and column if the file is not a valid puzzle.
      */
     public Puzzle(String filename)
     {
-        FileIO file = new FileIO(filename);
-        parseFile(file.getLines());
-        horizontal = new boolean[size()+1][size()];
-        XClickH = new boolean[size()+1][size()];
-        vertical = new boolean[size()][size()+1];
-        XClickV = new boolean[size()][size()+1];
-        clear();
+        try {
+            puzzle = PuzzleParser.load(filename);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        newSolution();
     }
     
+    /**
+     * Creates the puzzle with the given numbers, -1 for an empty square, and an empty solution.
+     * numbers is assumed to be square; it is copied, not shared.
+     */
+    public Puzzle(int[][] numbers)
+    {
+        puzzle = new int[numbers.length][];
+        for (int i = 0; i < numbers.length; i++){
+            puzzle[i] = numbers[i].clone();
+        }
+        newSolution();
+    }
+    
+    /**
+     * Creates a copy of other, with the same numbers and the same current solution.
+     * The copy can be changed without affecting other.
+     */
+    public Puzzle(Puzzle other)
+    {
+        puzzle = new int[other.size()][];
+        for (int i = 0; i < other.size(); i++){
+            puzzle[i] = other.puzzle[i].clone();
+        }
+        newSolution();
+        edges = other.edges.clone();
+        hash = other.hash;
+    }
+
     /**
      * Creates the puzzle from "eg3_1.txt".
      */
@@ -53,43 +93,422 @@ public class Puzzle
     }
 
     /**
-     * Returns the number layout of the puzzle.
+     * Returns the number layout of the puzzle, -1 for an empty square.
+     * The array is a copy; changing it does not change the puzzle. Use getNumber to read
+     * one square without copying, and setNumber to change one.
      */
     public int[][] getPuzzle()
     {
-        return puzzle;
+        int[][] copy = new int[size()][];
+        for (int r = 0; r < size(); r++){
+            copy[r] = puzzle[r].clone();
+        }
+        return copy;
+    }
+
+    /**
+     * Returns the number in Square r,c, or -1 if the square is empty.
+     */
+    public int getNumber(int r, int c)
+    {
+        return puzzle[r][c];
     }
     
     /**
-     * Returns the state of the X's in the current solution, horizontally.
+     * Returns the state of the X's in the current solution, vertically.
+     * The array is a copy; changing it does not change the puzzle.
      */
     public boolean[][] getXClickV()
     {
-        return XClickV;
+        return view(size(), size()+1, numHorizontal(), CROSS);
     }
     
     /**
      * Returns the state of the X's in the current solution, horizontally.
+     * The array is a copy; changing it does not change the puzzle.
      */
     public boolean[][] getXClickH()
     {
-        return XClickH;
+        return view(size()+1, size(), 0, CROSS);
     }
     
     /**
      * Returns the state of the current solution, horizontally.
+     * The array is a copy; changing it does not change the puzzle.
      */
     public boolean[][] getHorizontal()
     {
-        return horizontal;
+        return view(size()+1, size(), 0, LINE);
     }
 
     /**
      * Returns the state of the current solution, vertically.
+     * The array is a copy; changing it does not change the puzzle.
      */
     public boolean[][] getVertical()
     {
-        return vertical;
+        return view(size(), size()+1, numHorizontal(), LINE);
+    }
+
+    /**
+     * Returns true iff there is a Red X below Dot r,c.
+     * Returns false if the indices are illegal.
+     */
+    public boolean getXClickV(int r, int c)
+    {
+        return legalVertical(r, c) && getEdge(verticalEdge(r, c)) == CROSS;
+    }
+
+    /**
+     * Returns true iff there is a Red X to the right of Dot r,c.
+     * Returns false if the indices are illegal.
+     */
+    public boolean getXClickH(int r, int c)
+    {
+        return legalHorizontal(r, c) && getEdge(horizontalEdge(r, c)) == CROSS;
+    }
+
+    /**
+     * Returns true iff the horizontal line segment to the right of Dot r,c is on.
+     * Returns false if the indices are illegal.
+     */
+    public boolean getHorizontal(int r, int c)
+    {
+        return legalHorizontal(r, c) && getEdge(horizontalEdge(r, c)) == LINE;
+    }
+
+    /**
+     * Returns true iff the vertical line segment below Dot r,c is on.
+     * Returns false if the indices are illegal.
+     */
+    public boolean getVertical(int r, int c)
+    {
+        return legalVertical(r, c) && getEdge(verticalEdge(r, c)) == LINE;
+    }
+
+    /**
+     * Returns the number of edges in the puzzle, horizontal and vertical.
+     */
+    public int numEdges()
+    {
+        return numHorizontal() + size()*(size()+1);
+    }
+
+    /**
+     * Returns the index of the horizontal edge to the right of Dot r,c.
+     * The indices are assumed to be legal.
+     */
+    public int horizontalEdge(int r, int c)
+    {
+        return r*size() + c;
+    }
+
+    /**
+     * Returns the index of the vertical edge below Dot r,c.
+     * The indices are assumed to be legal.
+     */
+    public int verticalEdge(int r, int c)
+    {
+        return numHorizontal() + r*(size()+1) + c;
+    }
+
+    /**
+     * Returns the state of edge e: UNKNOWN, LINE or CROSS.
+     */
+    public int getEdge(int e)
+    {
+        return (int) (edges[e >>> 5] >>> ((e & 31) << 1)) & 3;
+    }
+
+    /**
+     * Sets the state of edge e to UNKNOWN, LINE or CROSS.
+     * The change can be undone if history is being kept.
+     */
+    public void setEdge(int e, int state)
+    {
+        int old = getEdge(e);
+        if (old != state){
+            if (journal != null){
+                journal.record(Journal.change(e, old, state));
+            }
+            changeEdge(e, old, state);
+        }
+    }
+
+    /**
+     * Undoes the last change to the edges. Returns false if there is nothing to undo.
+     */
+    public boolean undo()
+    {
+        int change = journal == null ? -1 : journal.undo();
+        if (change < 0){
+            return false;
+        }
+        changeEdge(Journal.edge(change), Journal.newState(change), Journal.oldState(change));
+        return true;
+    }
+
+    /**
+     * Redoes the last change to the edges that was undone. Returns false if there is nothing to redo.
+     */
+    public boolean redo()
+    {
+        int change = journal == null ? -1 : journal.redo();
+        if (change < 0){
+            return false;
+        }
+        changeEdge(Journal.edge(change), Journal.oldState(change), Journal.newState(change));
+        return true;
+    }
+
+    /**
+     * Returns a checkpoint for the current state of the edges, to be passed to rollback.
+     * Starts keeping history, if it is not being kept already.
+     */
+    public long checkpoint()
+    {
+        return journal().checkpoint();
+    }
+
+    /**
+     * Returns the number of changes to the edges that rollback(checkpoint) would undo,
+     * or minus the number it would redo. Throws an IllegalStateException as rollback does.
+     */
+    public int changesSince(long checkpoint)
+    {
+        return (int) (journal().position() - find(checkpoint));
+    }
+
+    /**
+     * Undoes or redoes changes until the edges are as they were at checkpoint.
+     * Throws an IllegalStateException if that is no longer possible, because the changes
+     * have been forgotten, replaced by new ones, or wiped by clear.
+     */
+    public void rollback(long checkpoint)
+    {
+        long position = find(checkpoint);
+        while (journal().position() > position) undo();
+        while (journal().position() < position) redo();
+    }
+
+    /**
+     * Returns the position of checkpoint in the journal, or throws an IllegalStateException if it is not there.
+     */
+    private long find(long checkpoint)
+    {
+        long position = journal().find(checkpoint);
+        if (position < 0){
+            throw new IllegalStateException("checkpoint " + checkpoint + " is no longer in the journal");
+        }
+        return position;
+    }
+
+    /**
+     * Makes sure that at least changes changes to the edges can be undone.
+     * Starts keeping history, if it is not being kept already.
+     */
+    public void reserveHistory(int changes)
+    {
+        journal().reserve(changes);
+    }
+
+    /**
+     * Starts keeping the history of changes to the edges, so that they can be undone and redone.
+     * Changes made before then cannot be undone. Until this, checkpoint or reserveHistory is called,
+     * setEdge keeps no history, so puzzles that are only solved or checked pay nothing for it.
+     */
+    public void keepHistory()
+    {
+        journal();
+    }
+
+    /**
+     * Returns the journal, making it if there is none yet.
+     */
+    private Journal journal()
+    {
+        if (journal == null){
+            journal = new Journal(HISTORY);
+        }
+        return journal;
+    }
+
+    /**
+     * Makes the line counts, bad squares and loops from the edges, if they have not been made yet.
+     * From then on they are kept up to date as the edges change.
+     */
+    private void track()
+    {
+        if (loops != null){
+            return;
+        }
+        lineCount = new byte[size()*size()];
+        bad = new int[size()*size()];
+        badPos = new int[size()*size()];
+        java.util.Arrays.fill(badPos, -1);
+        numBad = 0;
+        loops = new LoopTracker(this);
+        for (int sq = 0; sq < size()*size(); sq++){
+            checkSquare(sq);
+        }
+        for (int e = 0; e < numEdges(); e++){
+            if (getEdge(e) == LINE) trackLine(e, 1);
+        }
+    }
+
+    /**
+     * Changes the state of edge e from old to state, keeping the hash, line counts and loops up to date.
+     */
+    private void changeEdge(int e, int old, int state)
+    {
+        hash ^= edgeKey(e, old) ^ edgeKey(e, state);
+        int shift = (e & 31) << 1;
+        edges[e >>> 5] = (edges[e >>> 5] & ~(3L << shift)) | ((long) state << shift);
+        if (loops != null && (old == LINE) != (state == LINE)){
+            trackLine(e, state == LINE ? 1 : -1);
+        }
+    }
+
+    /**
+     * Adds a line segment on edge e to the line counts and loops if delta is 1,
+     * or takes it away if delta is -1. The edge must already be in its new state.
+     */
+    private void trackLine(int e, int delta)
+    {
+        int a, b;
+        if (e < numHorizontal()){
+            int r = e / size(), c = e % size();
+            countLine(r-1, c, delta);
+            countLine(r, c, delta);
+            a = r*(size()+1)+c;
+            b = a+1;
+        } else {
+            int r = (e - numHorizontal()) / (size()+1), c = (e - numHorizontal()) % (size()+1);
+            countLine(r, c-1, delta);
+            countLine(r, c, delta);
+            a = r*(size()+1)+c;
+            b = a+size()+1;
+        }
+        if (delta > 0){
+            loops.addLine(a, b);
+        } else {
+            loops.removeLine(a, b);
+        }
+    }
+
+    /**
+     * Returns the number of line segments meeting at Dot r,c.
+     * Returns 0 if the indices are illegal.
+     */
+    public int degree(int r, int c)
+    {
+        track();
+        if (r >= 0 && c >= 0 && r <= size() && c <= size()){
+            return loops.degree(r*(size()+1)+c);
+        } else {
+            return 0;
+        }
+    }
+
+    /**
+     * Returns true iff Dots r1,c1 and r2,c2 are joined by a path of line segments.
+     * The indices are assumed to be legal.
+     */
+    public boolean connected(int r1, int c1, int r2, int c2)
+    {
+        track();
+        return loops.connected(r1*(size()+1)+c1, r2*(size()+1)+c2);
+    }
+
+    /**
+     * Returns a number naming the piece of line through Dot r,c:
+     * two dots get the same number iff they are joined by a path of line segments.
+     * The numbers may change whenever the solution changes.
+     * The indices are assumed to be legal.
+     */
+    public int component(int r, int c)
+    {
+        track();
+        return loops.root(r*(size()+1)+c);
+    }
+
+    /**
+     * Returns the number of line segments in the current solution.
+     */
+    public int numLines()
+    {
+        track();
+        return loops.lines();
+    }
+
+    /**
+     * Returns the number of dots where a line ends, i.e. with exactly one line segment.
+     */
+    public int numDangling()
+    {
+        track();
+        return loops.dangling();
+    }
+
+    /**
+     * Returns the number of dots where a line branches, i.e. with three or more line segments.
+     */
+    public int numBranching()
+    {
+        track();
+        return loops.branching();
+    }
+
+    /**
+     * Returns the number of separate pieces of line in the current solution.
+     */
+    public int numComponents()
+    {
+        track();
+        return loops.components();
+    }
+
+    /**
+     * Returns true iff the line segments in the current solution form exactly one closed loop.
+     * The numbers in the squares are not considered.
+     */
+    public boolean isSingleLoop()
+    {
+        track();
+        return loops.isSingleLoop();
+    }
+
+    /**
+     * Returns the number of line segments surrounding Square r,c.
+     * Returns 0 if the indices are illegal.
+     */
+    public int linesAround(int r, int c)
+    {
+        track();
+        if (r >= 0 && c >= 0 && r < size() && c < size()){
+            return lineCount[r*size()+c];
+        } else {
+            return 0;
+        }
+    }
+
+    /**
+     * Returns the number of squares surrounded by the wrong number of line segments.
+     */
+    public int numBadSquares()
+    {
+        track();
+        return numBad;
+    }
+
+    /**
+     * Returns the i'th square surrounded by the wrong number of line segments, as r*size()+c.
+     * i is assumed to be between 0 and numBadSquares()-1; the order of the squares is unimportant.
+     */
+    public int badSquare(int i)
+    {
+        track();
+        return bad[i];
     }
 
     /**
@@ -108,88 +527,245 @@ public class Puzzle
                 puzzle[i][j] = Integer.parseInt(line[j]);
             }
         }
+        newSolution();
     }
   
+    /**
+     * Turns the Slither Link puzzle back into lines, in the form read by parseFile.
+     * The current solution is not included.
+     */
+    public ArrayList<String> toLines()
+    {
+        ArrayList<String> lines = new ArrayList<>();
+        for (int i = 0; i < size(); i++){
+            StringBuilder line = new StringBuilder();
+            for (int j = 0; j < size(); j++){
+                if (j > 0) line.append(' ');
+                line.append(puzzle[i][j]);
+            }
+            lines.add(line.toString());
+        }
+        return lines;
+    }
+
+    /**
+     * Changes the number in Square r,c to number, which is -1 for an empty square, or 0-3.
+     * Does nothing if the indices are illegal.
+     */
+    public void setNumber(int r, int c, int number)
+    {
+        if (r >= 0 && c >= 0 && r < size() && c < size()){
+            clueHash ^= squareKey(r*size()+c, puzzle[r][c]) ^ squareKey(r*size()+c, number);
+            puzzle[r][c] = number;
+            if (loops != null) checkSquare(r*size()+c);
+        }
+    }
+
     /**
      * Toggles a Red X to the right of Dot r,c, if the indices are legal.
+     * A line segment on the same edge is replaced by the X.
      * Otherwise do nothing.
      */
     public void RightClickXH(int r, int c)
     {
-        if (r >= 0 && r <= size() && c <= size()-1 && c >= 0){
-            if(XClickH[r][c] == false){
-               XClickH[r][c] = true;
-            }
-            else{
-               XClickH[r][c] = false; 
-            }
+        if (legalHorizontal(r, c)){
+            toggle(horizontalEdge(r, c), CROSS);
         }
     }
     
     /**
      * Toggles a Red X segment below Dot r,c, if the indices are legal.
+     * A line segment on the same edge is replaced by the X.
      * Otherwise do nothing.
      */
     public void RightClickXV(int r, int c)
     {
-        if (r >= 0 && r <= size()-1 && c <= size() && c >= 0){
-            if (XClickV[r][c] == false){
-                XClickV[r][c] = true;
-            } 
-            else{
-                XClickV[r][c] = false;
-            }
+        if (legalVertical(r, c)){
+            toggle(verticalEdge(r, c), CROSS);
         }
     }
     
     /**
      * Toggles the horizontal line segment to the right of Dot r,c, if the indices are legal.
+     * A Red X on the same edge is replaced by the line segment.
      * Otherwise do nothing.
      */
     public void horizontalClick(int r, int c)
     {
-        if (r >= 0 && r <= size() && c <= size()-1 && c >= 0){
-            if(horizontal[r][c] == false){
-               horizontal[r][c] = true;
-            }
-            else{
-               horizontal[r][c] = false; 
-            }
+        if (legalHorizontal(r, c)){
+            toggle(horizontalEdge(r, c), LINE);
         } 
     }
     
     /**
      * Toggles the vertical line segment below Dot r,c, if the indices are legal.
+     * A Red X on the same edge is replaced by the line segment.
      * Otherwise do nothing.
      */
     public void verticalClick(int r, int c)
     {
-        if (r >= 0 && r <= size()-1 && c <= size() && c >= 0){
-            if (vertical[r][c] == false){
-                vertical[r][c] = true;
-            } 
-            else{
-                vertical[r][c] = false;
-            }
+        if (legalVertical(r, c)){
+            toggle(verticalEdge(r, c), LINE);
         }
     }
     
     /**
      * Clears all line and X segments out of the current solution.
+     * This cannot be undone, and the changes before it can no longer be undone either.
      */
     public void clear()
     {
-        for (int i = 0; i <= size(); i++){
-            for (int j = 0; j < size(); j++){
-               horizontal[i][j] = false;
-               XClickH[i][j] = false;
+        java.util.Arrays.fill(edges, 0L);
+        if (loops != null){
+            java.util.Arrays.fill(lineCount, (byte) 0);
+            java.util.Arrays.fill(badPos, -1);
+            numBad = 0;
+            loops.clear();
+            for (int sq = 0; sq < size()*size(); sq++){
+                checkSquare(sq);
             }
         }
-        for (int i = 0; i < size(); i++){
-            for (int j = 0; j <= size(); j++){
-               vertical[i][j] = false;
-               XClickV[i][j] = false;
+        if (journal != null){
+            journal.clear();
+        }
+        hash = 0;
+    }
+
+    /**
+     * Makes an empty solution to fit the numbers.
+     */
+    private void newSolution()
+    {
+        edges = new long[(numEdges()+31)/32];
+        loops = null;
+        journal = null;
+        clueHash = mix(size());
+        for (int sq = 0; sq < size()*size(); sq++){
+            clueHash ^= squareKey(sq, puzzle[sq / size()][sq % size()]);
+        }
+        clear();
+    }
+
+    /**
+     * Returns the Zobrist hash of the current solution: the xor of a random-looking key
+     * for each edge that is not UNKNOWN. Equal solutions of same-sized puzzles have equal hashes,
+     * however they were reached. It is kept up to date as edges change.
+     */
+    public long hash()
+    {
+        return hash;
+    }
+
+    /**
+     * Returns the Zobrist hash of the size and numbers of the puzzle.
+     * It is kept up to date by setNumber.
+     */
+    public long clueHash()
+    {
+        return clueHash;
+    }
+
+    /**
+     * Returns the key of edge e in state, or 0 if state is UNKNOWN.
+     */
+    private static long edgeKey(int e, int state)
+    {
+        return state == UNKNOWN ? 0 : mix((long) e << 2 | state);
+    }
+
+    /**
+     * Returns the key of Square sq holding number, or 0 if it is empty.
+     */
+    private static long squareKey(int sq, int number)
+    {
+        return number < 0 ? 0 : mix(~((long) sq << 2 | number));
+    }
+
+    /**
+     * Returns x scrambled by the SplitMix64 finalizer, so that nearby values give unrelated keys.
+     */
+    private static long mix(long x)
+    {
+        x += 0x9E3779B97F4A7C15L;
+        x = (x ^ (x >>> 30)) * 0xBF58476D1CE4E5B9L;
+        x = (x ^ (x >>> 27)) * 0x94D049BB133111EBL;
+        return x ^ (x >>> 31);
+    }
+
+    /**
+     * Sets edge e to state, or back to UNKNOWN if it is already in that state.
+     */
+    private void toggle(int e, int state)
+    {
+        setEdge(e, getEdge(e) == state ? UNKNOWN : state);
+    }
+
+    /**
+     * Adds delta to the line count of Square r,c, if the indices are legal.
+     */
+    private void countLine(int r, int c, int delta)
+    {
+        if (r >= 0 && c >= 0 && r < size() && c < size()){
+            int sq = r*size()+c;
+            lineCount[sq] += delta;
+            checkSquare(sq);
+        }
+    }
+
+    /**
+     * Moves square sq onto or off the list of bad squares, according to its number and line count.
+     */
+    private void checkSquare(int sq)
+    {
+        int number = puzzle[sq / size()][sq % size()];
+        boolean wrong = number != -1 && number != lineCount[sq];
+        if (wrong && badPos[sq] == -1){
+            badPos[sq] = numBad;
+            bad[numBad++] = sq;
+        } else if (!wrong && badPos[sq] != -1){
+            int last = bad[--numBad];
+            bad[badPos[sq]] = last;
+            badPos[last] = badPos[sq];
+            badPos[sq] = -1;
+        }
+    }
+
+    /**
+     * Returns true iff r,c are legal indices for a horizontal edge.
+     */
+    private boolean legalHorizontal(int r, int c)
+    {
+        return r >= 0 && r <= size() && c <= size()-1 && c >= 0;
+    }
+
+    /**
+     * Returns true iff r,c are legal indices for a vertical edge.
+     */
+    private boolean legalVertical(int r, int c)
+    {
+        return r >= 0 && r <= size()-1 && c <= size() && c >= 0;
+    }
+
+    /**
+     * Returns the number of horizontal edges in the puzzle.
+     */
+    private int numHorizontal()
+    {
+        return (size()+1)*size();
+    }
+
+    /**
+     * Unpacks a rows x cols block of edges starting at edge first into a boolean grid,
+     * true wherever the edge is in state.
+     */
+    private boolean[][] view(int rows, int cols, int first, int state)
+    {
+        boolean[][] grid = new boolean[rows][cols];
+        for (int i = 0; i < rows; i++){
+            for (int j = 0; j < cols; j++){
+                grid[i][j] = getEdge(first + i*cols + j) == state;
             }
         }
+        return grid;
     }
 }
@@ -0,0 +1,52 @@
+/**
+ * PuzzleFormatException reports a puzzle file that cannot be read,
+ * giving the line and column where the problem was found.
+ *
+ * @author Jaimin Kirankumar Kerai
+ * @version 1.0
+ */
+import java.io.IOException;
+
+public class PuzzleFormatException extends IOException
+{
+    private static final long serialVersionUID = 1L;
+
+    private String source; // the file or other input being read
+    private int line;      // the line of the problem, counting from 1
+    private int column;    // the column of the problem, counting from 1
+
+    /**
+     * Creates an exception for the problem described by message, at line and column of source.
+     */
+    public PuzzleFormatException(String source, int line, int column, String message)
+    {
+        super(source + ":" + line + ":" + column + ": " + message);
+        this.source = source;
+        this.line = line;
+        this.column = column;
+    }
+
+    /**
+     * Returns the name of the file or other input being read.
+     */
+    public String getSource()
+    {
+        return source;
+    }
+
+    /**
+     * Returns the line of the problem, counting from 1.
+     */
+    public int getLine()
+    {
+        return line;
+    }
+
+    /**
+     * Returns the column of the problem, counting from 1.
+     */
+    public int getColumn()
+    {
+        return column;
+    }
+}
@@ -0,0 +1,178 @@
+/**
+ * PuzzleParser reads the numbers of a Slither Link puzzle straight from the bytes of a file.
+ * A puzzle is size lines of size numbers, each -1 for an empty square or 0-3,
+ * separated by spaces or tabs; lines may end in \n or \r\n, and blank lines are ignored.
+ *
+ * The file is read through a FileChannel into a buffer that is kept between files
+ * (large files are memory-mapped instead), and the numbers are picked out byte by byte,
+ * so nothing is allocated for each number or line; only the grid itself is created.
+ * Malformed input is reported with a PuzzleFormatException giving its line and column.
+ *
+ * A PuzzleParser may not be shared between threads; load uses a separate parser for each thread.
+ *
+ * @author Jaimin Kirankumar Kerai
+ * @version 1.0
+ */
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+public class PuzzleParser
+{
+    private static final int MAP_SIZE = 1 << 20; // files at least this long are memory-mapped
+    private static final ThreadLocal<PuzzleParser> parsers = ThreadLocal.withInitial(PuzzleParser::new);
+
+    private ByteBuffer buffer; // holds the bytes of the last file read, if it was not mapped
+    private String source;     // the name of the input being parsed, for error messages
+    private int line;          // the line being parsed, counting from 1
+    private int lineStart;     // the position in the input of the first byte of the line
+
+    /**
+     * Creates a parser.
+     */
+    public PuzzleParser()
+    {
+        buffer = ByteBuffer.allocate(4096);
+    }
+
+    /**
+     * Returns the numbers of the puzzle in filename, using this thread's parser.
+     */
+    public static int[][] load(String filename) throws IOException
+    {
+        return parsers.get().parse(filename);
+    }
+
+    /**
+     * Returns the numbers of the puzzle in filename.
+     */
+    public int[][] parse(String filename) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)){
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE){
+                throw new PuzzleFormatException(filename, 1, 1, "file is too large");
+            } else if (size >= MAP_SIZE){
+                return parse(channel.map(FileChannel.MapMode.READ_ONLY, 0, size), filename);
+            }
+            if (buffer.capacity() < size){
+                buffer = ByteBuffer.allocate(Integer.highestOneBit((int) size) * 2);
+            }
+            buffer.clear();
+            buffer.limit((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0);
+            buffer.flip();
+            return parse(buffer, filename);
+        }
+    }
+
+    /**
+     * Returns the numbers of the puzzle held in the remaining bytes of in, which are not consumed.
+     * source names the input in error messages.
+     */
+    public int[][] parse(ByteBuffer in, String source) throws PuzzleFormatException
+    {
+        this.source = source;
+        line = 1;
+        lineStart = in.position();
+        int end = in.limit();
+        int[][] numbers = null;
+        int size = 0, row = 0, col = 0;
+        int pos = in.position();
+        while (pos < end){
+            byte b = in.get(pos);
+            if (b == '\n'){
+                if (col > 0){
+                    endRow(col, size, pos);
+                    row += 1;
+                    col = 0;
+                }
+                line += 1;
+                lineStart = pos+1;
+                pos += 1;
+            } else if (b == ' ' || b == '\t' || b == '\r'){
+                pos += 1;
+            } else {
+                if (numbers == null){
+                    size = countNumbers(in, pos, end);
+                    numbers = new int[size][size];
+                }
+                if (row >= size){
+                    throw error(pos, "expected " + size + " rows, found more");
+                } else if (col >= size){
+                    throw error(pos, "expected " + size + " numbers on the line, found more");
+                }
+                int value, length;
+                if (b == '-' && pos+1 < end && in.get(pos+1) == '1'){
+                    value = -1;
+                    length = 2;
+                } else if (b >= '0' && b <= '3'){
+                    value = b - '0';
+                    length = 1;
+                } else {
+                    value = 0;
+                    length = 0;
+                }
+                if (length == 0 || pos+length < end && !isSpace(in.get(pos+length))){
+                    throw error(pos, "expected -1, 0, 1, 2 or 3");
+                }
+                numbers[row][col] = value;
+                col += 1;
+                pos += length;
+            }
+        }
+        if (col > 0){
+            endRow(col, size, pos);
+            row += 1;
+        }
+        if (numbers == null){
+            throw error(pos, "no numbers found");
+        } else if (row < size){
+            throw error(pos, "expected " + size + " rows, found " + row);
+        }
+        return numbers;
+    }
+
+    /**
+     * Checks that the row ending at position pos of the input had size numbers.
+     */
+    private void endRow(int numbersFound, int size, int pos) throws PuzzleFormatException
+    {
+        if (numbersFound < size){
+            throw error(pos, "expected " + size + " numbers on the line, found " + numbersFound);
+        }
+    }
+
+    /**
+     * Returns the number of numbers on the line starting at position pos of in, without reading them.
+     */
+    private int countNumbers(ByteBuffer in, int pos, int end)
+    {
+        int count = 0;
+        boolean inNumber = false;
+        for (; pos < end && in.get(pos) != '\n'; pos++){
+            boolean space = isSpace(in.get(pos));
+            if (!space && !inNumber) count += 1;
+            inNumber = !space;
+        }
+        return count;
+    }
+
+    /**
+     * Returns true iff b separates numbers or lines.
+     */
+    private static boolean isSpace(byte b)
+    {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\n';
+    }
+
+    /**
+     * Returns an exception for the problem described by message, at position pos of the current line.
+     */
+    private PuzzleFormatException error(int pos, String message)
+    {
+        return new PuzzleFormatException(source, line, pos - lineStart + 1, message);
+    }
+}
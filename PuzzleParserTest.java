@@ -0,0 +1,121 @@
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * This class provides unit test cases for the PuzzleParser class.
+ * @author Jaimin Kirankumar Kerai
+ * @version 1.0
+ */
+public class PuzzleParserTest
+{
+    private PuzzleParser parser;
+
+    /**
+     * Sets up the test fixture.
+     *
+     * Called before every test case method.
+     */
+    @Before
+    public void setUp()
+    {
+        parser = new PuzzleParser();
+    }
+
+    // Returns the numbers parsed from s.
+    private int[][] parse(String s) throws IOException
+    {
+        return parser.parse(ByteBuffer.wrap(s.getBytes(StandardCharsets.US_ASCII)), "test");
+    }
+
+    // Returns the exception thrown when parsing s, or null if s parses.
+    private PuzzleFormatException error(String s) throws IOException
+    {
+        try {
+            parse(s);
+            return null;
+        } catch (PuzzleFormatException e) {
+            return e;
+        }
+    }
+
+    @Test
+    public void testExamples() throws IOException
+    {
+        String[] files = {"eg2_1.txt", "eg3_1.txt", "eg5_2.txt", "eg7_1.txt", "eg7_2.txt", "eg10_1.txt", "eg10_2.txt"};
+        for (String f : files)
+        {
+            Puzzle old = new Puzzle();
+            old.parseFile(new FileIO(f).getLines());
+            assertTrue(f, Arrays.deepEquals(old.getPuzzle(), parser.parse(f)));
+            assertTrue(f, Arrays.deepEquals(old.getPuzzle(), new Puzzle(f).getPuzzle()));
+        }
+    }
+
+    @Test
+    public void testLayout() throws IOException
+    {
+        int[][] expected = {{-1, 0}, {3, 2}};
+        assertTrue(Arrays.deepEquals(expected, parse("-1 0\n3 2\n")));
+        assertTrue(Arrays.deepEquals(expected, parse("-1 0\r\n3 2\r\n")));
+        assertTrue(Arrays.deepEquals(expected, parse("-1 0\n3 2")));
+        assertTrue(Arrays.deepEquals(expected, parse("  -1\t 0 \n3  2\n\n\n")));
+        assertTrue(Arrays.deepEquals(expected, parse("\n-1 0\n\n3 2\n")));
+        assertTrue(Arrays.deepEquals(new int[][] {{1}}, parse("1")));
+    }
+
+    @Test
+    public void testErrors() throws IOException
+    {
+        PuzzleFormatException e = error("-1 0\n3 4\n");
+        assertEquals(2, e.getLine());
+        assertEquals(3, e.getColumn());
+        assertEquals("test", e.getSource());
+
+        e = error("-1 0\n3 22\n");
+        assertEquals(2, e.getLine());
+        assertEquals(3, e.getColumn());
+
+        e = error("-1 0\n-2 1\n");
+        assertEquals(2, e.getLine());
+        assertEquals(1, e.getColumn());
+
+        e = error("-1 0 1\n3 2 1\n0 0\n");
+        assertEquals(3, e.getLine());
+        assertEquals(4, e.getColumn());
+
+        e = error("-1 0\n3 2 1\n");
+        assertEquals(2, e.getLine());
+        assertEquals(5, e.getColumn());
+
+        e = error("-1 0\n3 2\n1 1\n");
+        assertEquals(3, e.getLine());
+        assertEquals(1, e.getColumn());
+
+        e = error("-1 0\n3 2\n\n1 1\n");
+        assertEquals(4, e.getLine());
+
+        e = error("-1 0 1\n3 2 1\n");
+        assertEquals(3, e.getLine());
+        assertEquals(1, e.getColumn());
+
+        assertNotNull(error(""));
+        assertNotNull(error("\n \n"));
+    }
+
+    @Test
+    public void testMissingFile()
+    {
+        try {
+            parser.parse("no such file.txt");
+            fail();
+        } catch (IOException e) {
+            assertFalse(e instanceof PuzzleFormatException);
+        }
+    }
+}
@@ -158,4 +158,302 @@ public class PuzzleTest
     {
         testPuzzle();
     }
+
+    @Test
+    public void testEdgeStates()
+    {
+        assertEquals(24, p.numEdges());
+        p.horizontalClick(3,2);
+        p.RightClickXV(2,3);
+        assertEquals(Puzzle.LINE, p.getEdge(p.horizontalEdge(3,2)));
+        assertEquals(Puzzle.CROSS, p.getEdge(p.verticalEdge(2,3)));
+        assertTrue(p.getHorizontal(3,2));
+        assertTrue(p.getXClickV(2,3));
+        assertTrue(p.getHorizontal()[3][2]);
+        assertTrue(p.getXClickV()[2][3]);
+
+        // a line replaces an X on the same edge, and vice versa
+        p.verticalClick(2,3);
+        assertTrue(p.getVertical(2,3));
+        assertFalse(p.getXClickV(2,3));
+        p.RightClickXH(3,2);
+        assertFalse(p.getHorizontal(3,2));
+        assertTrue(p.getXClickH(3,2));
+
+        // illegal indices read as empty
+        assertFalse(p.getHorizontal(4,0));
+        assertFalse(p.getVertical(0,-1));
+
+        p.clear();
+        for (int e = 0; e < p.numEdges(); e++)
+            assertEquals(Puzzle.UNKNOWN, p.getEdge(e));
+    }
+
+    @Test
+    public void testLineCounts()
+    {
+        // eg3_1 has numbers in squares 0,2 1,2 2,0 and 2,2, none of them 0
+        assertEquals(4, p.numBadSquares());
+        p.horizontalClick(0,2);
+        p.verticalClick(0,2);
+        p.verticalClick(0,3);
+        assertEquals(3, p.linesAround(0,2));
+        assertEquals(1, p.linesAround(0,1));
+        assertEquals(0, p.linesAround(1,2));
+        assertEquals(3, p.numBadSquares());
+        for (int i = 0; i < p.numBadSquares(); i++)
+            assertTrue(p.badSquare(i) != 2);
+
+        // an X does not count as a line
+        p.RightClickXH(0,2);
+        assertEquals(2, p.linesAround(0,2));
+        assertEquals(4, p.numBadSquares());
+
+        p.clear();
+        assertEquals(0, p.linesAround(0,2));
+        assertEquals(4, p.numBadSquares());
+        assertEquals(0, p.linesAround(-1,0));
+    }
+
+    @Test
+    public void testLoopTracking()
+    {
+        // the border of the 3x3 grid
+        for (int j = 0; j < 3; j++)
+        {
+            p.horizontalClick(0,j);
+            p.horizontalClick(3,j);
+            p.verticalClick(j,0);
+            p.verticalClick(j,3);
+        }
+        assertEquals(12, p.numLines());
+        assertTrue(p.isSingleLoop());
+        assertEquals(2, p.degree(0,0));
+        assertEquals(0, p.degree(1,1));
+
+        p.horizontalClick(0,1);
+        assertFalse(p.isSingleLoop());
+        assertEquals(2, p.numDangling());
+        assertEquals(1, p.numComponents());
+
+        p.horizontalClick(3,1);
+        assertEquals(2, p.numComponents());
+        assertFalse(p.connected(0,0,0,3));
+        assertTrue(p.connected(0,0,3,1));
+
+        p.horizontalClick(1,0);
+        assertEquals(1, p.numBranching());
+        assertEquals(5, p.numDangling());
+        assertEquals(2, p.numComponents());
+
+        p.horizontalClick(0,1);
+        p.horizontalClick(3,1);
+        p.horizontalClick(1,0);
+        assertTrue(p.isSingleLoop());
+
+        p.clear();
+        assertEquals(0, p.numLines());
+        assertEquals(0, p.numComponents());
+    }
+
+    @Test
+    public void testUndoRedo()
+    {
+        p.keepHistory();
+        assertFalse(p.undo());
+        p.horizontalClick(0,0);
+        p.RightClickXH(0,1);
+        p.horizontalClick(0,1);                 // the line replaces the X
+        assertTrue(p.getHorizontal(0,1));
+
+        assertTrue(p.undo());
+        assertTrue(p.getXClickH(0,1));
+        assertTrue(p.undo());
+        assertEquals(Puzzle.UNKNOWN, p.getEdge(p.horizontalEdge(0,1)));
+        assertTrue(p.undo());
+        assertEquals(0, p.numLines());
+        assertFalse(p.undo());
+
+        assertTrue(p.redo());
+        assertTrue(p.redo());
+        assertEquals(1, p.numLines());
+        assertTrue(p.getXClickH(0,1));
+
+        // a new move forgets the changes that could have been redone
+        p.verticalClick(0,0);
+        assertFalse(p.redo());
+        assertEquals(1, p.degree(1,0));
+    }
+
+    @Test
+    public void testHistoryOptIn()
+    {
+        // no history is kept until something asks for it
+        p.horizontalClick(0,0);
+        assertFalse(p.undo());
+        assertFalse(p.redo());
+        p.keepHistory();
+        p.verticalClick(0,0);
+        assertTrue(p.undo());
+        assertFalse(p.undo());
+        assertEquals(1, p.numLines());
+        assertTrue(p.getHorizontal(0,0));
+    }
+
+    @Test
+    public void testCheckpoint()
+    {
+        long start = p.checkpoint();
+        p.horizontalClick(0,0);
+        p.verticalClick(0,0);
+        long middle = p.checkpoint();
+        p.verticalClick(0,1);
+        p.verticalClick(0,1);
+        assertEquals(middle+2, p.checkpoint());
+
+        p.rollback(start);
+        assertEquals(0, p.numLines());
+        assertEquals(0, p.numComponents());
+        p.rollback(middle);
+        assertEquals(2, p.numLines());
+        assertEquals(2, p.degree(0,0));
+
+        p.horizontalClick(2,2);
+        try {
+            p.rollback(middle+2);
+            fail();
+        } catch (IllegalStateException e) {}
+
+        p.clear();
+        try {
+            p.rollback(start);
+            fail();
+        } catch (IllegalStateException e) {}
+        assertFalse(p.undo());
+    }
+
+    @Test
+    public void testTrackedLate()
+    {
+        // lines set before anything asks about them are counted when first asked
+        p.horizontalClick(0,0);
+        p.verticalClick(0,0);
+        p.RightClickXV(0,1);
+        Puzzle q = new Puzzle(p);
+        assertFalse(q.undo());
+        assertEquals(2, q.numLines());
+        assertEquals(2, q.degree(0,0));
+        assertEquals(1, q.numComponents());
+        assertEquals(p.numBadSquares(), q.numBadSquares());
+        assertEquals(p.hash(), q.hash());
+        q.verticalClick(0,1);
+        assertEquals(3, q.numLines());
+        assertEquals(2, p.numLines());
+    }
+
+    @Test
+    public void testReplacedCheckpoint()
+    {
+        p.keepHistory();
+        p.horizontalClick(0,0);
+        long a = p.checkpoint();
+        assertTrue(p.undo());
+        p.verticalClick(0,0);                   // replaces the move a was taken after
+        try {
+            p.rollback(a);
+            fail();
+        } catch (IllegalStateException e) {}
+        assertTrue(p.getVertical(0,0));
+        assertFalse(p.getHorizontal(0,0));
+
+        // a checkpoint taken on the new history still works
+        long b = p.checkpoint();
+        p.verticalClick(1,0);
+        assertEquals(1, p.changesSince(b));
+        p.rollback(b);
+        assertEquals(1, p.numLines());
+        assertEquals(-1, p.changesSince(b + 1));
+        p.verticalClick(2,0);                   // replaces only the change after b
+        assertEquals(1, p.changesSince(b));
+        try {
+            p.rollback(b + 1);
+            fail();
+        } catch (IllegalStateException e) {}
+    }
+
+    @Test
+    public void testLongHistory()
+    {
+        // far more moves than the journal keeps: only the latest can be undone
+        long start = p.checkpoint();
+        for (int i = 0; i < 300001; i++){
+            p.horizontalClick(0,0);
+        }
+        assertTrue(p.getHorizontal(0,0));
+        try {
+            p.rollback(start);
+            fail();
+        } catch (IllegalStateException e) {}
+        int undone = 0;
+        while (p.undo()) undone++;
+        assertEquals(1 << 17, undone);
+        assertTrue(p.getHorizontal(0,0));
+    }
+
+    @Test
+    public void testHash()
+    {
+        assertEquals(0, p.hash());
+        p.horizontalClick(0,0);
+        p.RightClickXV(1,1);
+        long h = p.hash();
+        assertTrue(h != 0);
+
+        // the same board reached another way has the same hash
+        Puzzle q = new Puzzle("eg3_1.txt");
+        q.keepHistory();
+        q.verticalClick(1,1);
+        q.RightClickXV(1,1);
+        q.horizontalClick(0,0);
+        assertEquals(h, q.hash());
+        assertEquals(h, new Puzzle(p).hash());
+
+        q.RightClickXH(0,0);                    // an X on the edge instead of a line
+        assertTrue(h != q.hash());
+        q.undo();
+        assertEquals(h, q.hash());
+        q.clear();
+        assertEquals(0, q.hash());
+    }
+
+    @Test
+    public void testNumbers()
+    {
+        // the numbers can only be changed through setNumber, which keeps the clue hash up to date
+        long h = p.clueHash();
+        int[][] numbers = p.getPuzzle();
+        numbers[0][2] = 0;
+        assertEquals(eg3[0][2], p.getNumber(0,2));
+        assertEquals(eg3[0][2], p.getPuzzle()[0][2]);
+        assertEquals(h, p.clueHash());
+        p.setNumber(0,2,0);
+        assertEquals(0, p.getNumber(0,2));
+        assertTrue(java.util.Arrays.deepEquals(numbers, p.getPuzzle()));
+    }
+
+    @Test
+    public void testClueHash()
+    {
+        long h = p.clueHash();
+        assertEquals(h, new Puzzle(eg3).clueHash());
+        p.setNumber(0,2,2);
+        assertTrue(h != p.clueHash());
+        p.setNumber(0,2,3);
+        assertEquals(h, p.clueHash());
+        p.setNumber(1,1,0);
+        assertTrue(h != p.clueHash());
+        p.setNumber(1,1,-1);
+        assertEquals(h, p.clueHash());
+        assertTrue(h != new Puzzle("eg3_2.txt").clueHash());
+    }
 }
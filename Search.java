@@ -0,0 +1,221 @@
+/**
+ * Search solves a Slither Link puzzle completely, by deduction and backtracking.
+ * At each node the Solver deduces what it can; if edges are still unknown,
+ * the search picks one, tries it as a line and then as an X, and backtracks on contradiction.
+ * Backtracking rolls back the puzzle's journal, so the board is never copied.
+ *
+ * A search can be limited by a number of nodes or a wall-clock time, and can be cancelled
+ * from another thread. The final board is checked with AnalyzeSolution.finished.
+ *
+ * A search can be given a TranspositionTable of boards known to have no solution.
+ * No board is met twice in one search, since the branches of every node differ on its edge,
+ * but a table kept from one search lets a later search of the same puzzle, such as a retry
+ * with a larger node limit, skip every subtree the first one finished.
+ * Generator and ParallelSearch retry that way, and always use a table.
+ *
+ * @author Jaimin Kirankumar Kerai
+ * @version 1.0
+ */
+import java.util.concurrent.TimeUnit;
+
+public class Search
+{
+    private Puzzle p;                   // the puzzle being solved
+    private Solver solver;              // the deductions
+    private long nodeLimit;             // the most nodes to visit
+    private long timeLimit;             // the most nanoseconds to run for, from the start of solve
+    private long start;                 // the System.nanoTime() at the start of solve
+    private volatile boolean cancelled; // true once cancel has been called
+    private long nodes;                 // the number of nodes visited
+    private long backtracks;            // the number of branches that failed
+    private int limit;                  // the number of solutions to find before stopping
+    private int solutions;              // the number of solutions found
+    private TranspositionTable table;   // the boards known to have no solution, or null
+
+    /**
+     * Creates a search for p, with no limits.
+     */
+    public Search(Puzzle p)
+    {
+        this.p = p;
+        solver = new Solver(p);
+        nodeLimit = Long.MAX_VALUE;
+        timeLimit = Long.MAX_VALUE;
+        limit = 1;
+    }
+
+    /**
+     * Returns the number of solutions of p, counting no further than limit.
+     * Typically limit is 2, to tell whether p has exactly one solution.
+     * p itself is not changed.
+     */
+    public static int countSolutions(Puzzle p, int limit)
+    {
+        return countSolutions(p, limit, Long.MAX_VALUE);
+    }
+
+    /**
+     * Returns the number of solutions of p, counting no further than limit
+     * and visiting no more than nodes search nodes.
+     * Returns -1 if the nodes run out before the count is known.
+     */
+    public static int countSolutions(Puzzle p, int limit, long nodes)
+    {
+        Search s = new Search(new Puzzle(p));
+        s.nodeLimit = nodes;
+        return s.count(limit);
+    }
+
+    /**
+     * Counts the solutions of the puzzle on the board, no further than limit.
+     * Returns -1 if the search stops at a node or time limit, or is cancelled, before the count is known.
+     */
+    public int count(int limit)
+    {
+        this.limit = limit;
+        Solver.Result result = solve();
+        this.limit = 1;
+        return result == Solver.Result.ABORTED ? -1 : solutions;
+    }
+
+    /**
+     * Limits the search to visiting at most nodes nodes.
+     */
+    public void setNodeLimit(long nodes)
+    {
+        nodeLimit = nodes;
+    }
+
+    /**
+     * Limits the search to running for at most millis milliseconds.
+     * A limit too large to hold in nanoseconds is no limit.
+     */
+    public void setTimeLimit(long millis)
+    {
+        timeLimit = TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    /**
+     * Uses table to skip the boards already in it, and adds the boards found to have no solution.
+     */
+    public void setTable(TranspositionTable table)
+    {
+        this.table = table;
+    }
+
+    /**
+     * Stops the search as soon as possible; solve then returns ABORTED.
+     * May be called from any thread.
+     */
+    public void cancel()
+    {
+        cancelled = true;
+    }
+
+    /**
+     * Returns the number of nodes visited so far.
+     */
+    public long getNodes()
+    {
+        return nodes;
+    }
+
+    /**
+     * Returns the number of branches that failed so far.
+     */
+    public long getBacktracks()
+    {
+        return backtracks;
+    }
+
+    /**
+     * Solves the puzzle.
+     * Returns SOLVED, leaving the solution on the board; CONTRADICTION if there is no solution;
+     * or ABORTED if a limit was reached or the search was cancelled.
+     */
+    public Solver.Result solve()
+    {
+        start = System.nanoTime();
+        solutions = 0;
+        Solver.Result result = solver.solve();
+        if (result == Solver.Result.STUCK){
+            result = search();
+        } else if (result == Solver.Result.SOLVED){
+            result = found();
+        }
+        return solutions > 0 && result == Solver.Result.CONTRADICTION ? Solver.Result.SOLVED : result;
+    }
+
+    /**
+     * Searches below the current node, whose deductions have all been made.
+     */
+    private Solver.Result search()
+    {
+        nodes += 1;
+        if (cancelled || nodes > nodeLimit || timeLimit != Long.MAX_VALUE && System.nanoTime() - start > timeLimit){
+            return Solver.Result.ABORTED;
+        }
+        if (table != null && table.contains(p)){
+            return Solver.Result.CONTRADICTION;
+        }
+        int found = solutions;
+        int e = chooseEdge(p);
+        for (int i = 0; i < 2; i++){
+            int state = i == 0 ? Puzzle.LINE : Puzzle.CROSS;
+            long mark = solver.mark();
+            solver.assign(e, state);
+            Solver.Result result = solver.propagate();
+            if (result == Solver.Result.STUCK){
+                result = search();
+            } else if (result == Solver.Result.SOLVED){
+                result = found();
+            }
+            if (result == Solver.Result.SOLVED || result == Solver.Result.ABORTED){
+                return result;
+            }
+            backtracks += 1;
+            solver.undo(mark);
+        }
+        if (table != null && solutions == found){
+            table.add(p);
+        }
+        return Solver.Result.CONTRADICTION;
+    }
+
+    /**
+     * Confirms and counts a board the Solver reports as solved.
+     * Returns SOLVED once enough solutions have been found,
+     * otherwise CONTRADICTION so that the search backtracks and keeps looking.
+     */
+    private Solver.Result found()
+    {
+        if (!AnalyzeSolution.finished(p).equals("Finished")){
+            return Solver.Result.CONTRADICTION;
+        }
+        solutions += 1;
+        return solutions >= limit ? Solver.Result.SOLVED : Solver.Result.CONTRADICTION;
+    }
+
+    /**
+     * Returns the unknown edge of p to branch on: one that continues a loose end if there is one,
+     * otherwise the first unknown edge. Returns -1 if no edge is unknown.
+     */
+    static int chooseEdge(Puzzle p)
+    {
+        int n = p.size();
+        int h = (n+1)*n;
+        int first = -1;
+        for (int e = 0; e < p.numEdges(); e++){
+            if (p.getEdge(e) != Puzzle.UNKNOWN) continue;
+            if (first == -1) first = e;
+            boolean loose;
+            if (e < h){
+                loose = p.degree(e / n, e % n) == 1 || p.degree(e / n, e % n + 1) == 1;
+            } else {
+                loose = p.degree((e-h) / (n+1), (e-h) % (n+1)) == 1 || p.degree((e-h) / (n+1) + 1, (e-h) % (n+1)) == 1;
+            }
+            if (loose) return e;
+        }
+        return first;
+    }
+}
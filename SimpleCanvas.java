@@ -17,6 +17,8 @@ public class SimpleCanvas
     private Graphics2D graphic;
     private Image      canvasImage;
     private boolean    autoRepaint;
+    private Rectangle  damage;      // the part of the image drawn on since the last repaint, or null
+    private boolean    flushing;    // whether a repaint of the damage is already on its way
     
     /**
      * Creates and displays a SimpleCanvas of the specified size and background 
@@ -52,7 +54,7 @@ public class SimpleCanvas
     public void drawLine(int x1, int y1, int x2, int y2, Color c) {
         setForegroundColour(c);
         graphic.drawLine(x1, y1, x2, y2);
-        if (autoRepaint) canvas.repaint();
+        damage(Math.min(x1, x2), Math.min(y1, y2), Math.abs(x1 - x2) + 1, Math.abs(y1 - y2) + 1);
     }
     
     /** 
@@ -69,30 +71,56 @@ public class SimpleCanvas
     public void drawRectangle(int x1, int y1, int x2, int y2, Color c) {
         setForegroundColour(c);
         graphic.fillRect(Math.min(x1, x2), Math.min(y1, y2), Math.abs(x1 - x2), Math.abs(y1 - y2));
-        if (autoRepaint) canvas.repaint();
+        damage(Math.min(x1, x2), Math.min(y1, y2), Math.abs(x1 - x2), Math.abs(y1 - y2));
+    }
+    
+    /**
+     * Draws the part of img at sx,sy of width w and height h on this SimpleCanvas at x,y.
+     */
+    public void drawImage(Image img, int sx, int sy, int w, int h, int x, int y) {
+        graphic.drawImage(img, x, y, x + w, y + h, sx, sy, sx + w, sy + h, null);
+        damage(x, y, w, h);
     }
     
     /** 
      * Draws a disc on this SimpleCanvas centred at x,y with radius r with colour c.
      */
     public void drawDisc(int x, int y, int r, Color c) {
-        for (int i = x - r; i <= x + r; i++)
-            for (int j = y - r; j <= y + r; j++)
-                if (Math.pow(i-x, 2) + Math.pow(j-y, 2) <= Math.pow(r, 2)) 
-                   drawPoint(i, j, c);
-        if (autoRepaint) canvas.repaint();
+        setForegroundColour(c);
+        for (int j = -r; j <= r; j++) {
+            int w = span(r * r - j * j);
+            if (w >= 0) graphic.drawLine(x - w, y + j, x + w, y + j);
+        }
+        damage(x - r, y - r, 2 * r + 1, 2 * r + 1);
     }
     
     /** 
      * Draws a circle on this SimpleCanvas centred at x,y with radius r with colour c.
      */
     public void drawCircle(int x, int y, int r, Color c) {
-        for (int i = x - r; i <= x + r; i++)
-            for (int j = y - r; j <= y + r; j++)
-                if (Math.pow(i-x, 2) + Math.pow(j-y, 2) <= Math.pow(r,     2) &&
-                    Math.pow(i-x, 2) + Math.pow(j-y, 2) >= Math.pow(r - 5, 2)) 
-                   drawPoint(i, j, c);
-        if (autoRepaint) canvas.repaint();
+        setForegroundColour(c);
+        for (int j = -r; j <= r; j++) {
+            int w = span(r * r - j * j);
+            int v = span((r - 5) * (r - 5) - j * j - 1) + 1;
+            if (v == 0) {
+                if (w >= 0) graphic.drawLine(x - w, y + j, x + w, y + j);
+            } else if (v <= w) {
+                graphic.drawLine(x - w, y + j, x - v, y + j);
+                graphic.drawLine(x + v, y + j, x + w, y + j);
+            }
+        }
+        damage(x - r, y - r, 2 * r + 1, 2 * r + 1);
+    }
+    
+    /**
+     * Returns the largest i with i*i <= d, or -1 if d is negative.
+     */
+    private static int span(int d) {
+        if (d < 0) return -1;
+        int i = (int) Math.sqrt(d);
+        while (i * i > d) i--;
+        while ((i + 1) * (i + 1) <= d) i++;
+        return i;
     }
     
     /**
@@ -101,7 +129,10 @@ public class SimpleCanvas
     public void drawString(String text, int x, int y, Color c) {
         setForegroundColour(c);
         graphic.drawString(text, x, y);
-        if (autoRepaint) canvas.repaint();
+        FontMetrics metrics = graphic.getFontMetrics();
+        int pad = metrics.getHeight() / 4;
+        damage(x - pad, y - metrics.getMaxAscent(), metrics.stringWidth(text) + 2 * pad,
+               metrics.getMaxAscent() + metrics.getMaxDescent());
     }
     
     /**
@@ -143,8 +174,12 @@ public class SimpleCanvas
     /**
      * Sets the repaint mode to either manual or automatic.
      */
-    public void setAutoRepaint(boolean autoRepaint) {
+    public synchronized void setAutoRepaint(boolean autoRepaint) {
         this.autoRepaint = autoRepaint;
+        if (autoRepaint && damage != null && !flushing) {
+            flushing = true;
+            SwingUtilities.invokeLater(this::flush);
+        }
     }
      
      
@@ -153,9 +188,43 @@ public class SimpleCanvas
      * this method can be used to cause a manual repaint.
      */
     public void repaint() {
+        synchronized (this) {
+            damage = null;
+        }
         canvas.repaint();
     }
     
+    /**
+     * Adds the rectangle at x,y of width w and height h to the damage.
+     * The first damage after a repaint asks the event dispatch thread to repaint,
+     * so everything drawn before it gets there is repainted together.
+     */
+    private synchronized void damage(int x, int y, int w, int h) {
+        if (damage == null) {
+            damage = new Rectangle(x, y, w, h);
+        } else {
+            damage.add(x, y);
+            damage.add(x + w, y + h);
+        }
+        if (autoRepaint && !flushing) {
+            flushing = true;
+            SwingUtilities.invokeLater(this::flush);
+        }
+    }
+    
+    /**
+     * Repaints the damage on the event dispatch thread.
+     */
+    private void flush() {
+        Rectangle r;
+        synchronized (this) {
+            r = damage;
+            damage = null;
+            flushing = false;
+        }
+        if (r != null) canvas.repaint(r.x, r.y, r.width, r.height);
+    }
+    
     /**
      * Causes execution to pause for the specified amount of time.
      * This is usually used to produce animations in an easy manner, 
@@ -176,6 +245,20 @@ public class SimpleCanvas
         canvas.addMouseListener(ml);
     }
     
+    /**
+     * Sets up this SimpleCanvas to respond to mouse movement and dragging.
+     */
+    public void addMouseMotionListener(MouseMotionListener ml) {
+        canvas.addMouseMotionListener(ml);
+    }
+    
+    /**
+     * Sets up this SimpleCanvas to respond to the mouse wheel.
+     */
+    public void addMouseWheelListener(MouseWheelListener ml) {
+        canvas.addMouseWheelListener(ml);
+    }
+    
     class CanvasPane extends JPanel {
         public void paint(Graphics g) {
             g.drawImage(canvasImage,0,0,null);
@@ -7,24 +7,32 @@
  */
 import java.awt.*;
 import java.awt.event.*;
-import java.lang.Math;
 
-public class SlitherLink implements MouseListener
+public class SlitherLink implements MouseListener, MouseMotionListener, MouseWheelListener
 {    
+    private static final int VIEW = 800;  // the largest width and height of the board on display
+    private static final int WIDTH = 160; // the smallest width of the window, to fit the buttons
+
     private Puzzle game;     // internal representation of the game
     private SimpleCanvas sc; // the display window
+    private BoardView view;  // the part of the board on display
+    private EdgePicker picker; // finds the edge under the mouse
+    private int dragX, dragY;  // where the mouse was when the view was last moved
    
     private final Color green    = Color.green; // Colour green
     private final Color red = Color.red; // Colour red
     private final Color black  = Color.black; // Colour black
     private final Color bgColor  = Color.white; // Colour white
+    private final Font titleFont = new Font("Arial",Font.BOLD,20);     // the font for the title and buttons
+    private final Font messageFont = new Font("Arial",Font.ITALIC,15); // the font for the result of CHECK
    
     /**
      * Creates a display for playing the puzzle p.
      */
     public SlitherLink(Puzzle p)
     {
-        p.getPuzzle();
+        game = p;
+        game.keepHistory();
         displayPuzzle();
     }
     
@@ -47,65 +55,32 @@ public class SlitherLink implements MouseListener
     /**
      * Displays the initial puzzle on sc. 
      * Have a look at puzzle-loop.com for a basic display, or use your imagination. 
+     * A board too big for the window shows only part of itself, which can be moved
+     * by dragging with the middle button, and zoomed with the mouse wheel.
+     * Below the board are the CLEAR, CHECK, UNDO and REDO buttons.
      */
     public void displayPuzzle()
     {
         int size = game.size();
-        int canvas_size = (size+1)*40;
-        sc = new SimpleCanvas("SlitherLink", canvas_size, canvas_size+150, bgColor);
+        int canvas_size = Math.min((size+1)*40, VIEW);
+        int mid = Math.max(canvas_size, WIDTH)/2;
+        sc = new SimpleCanvas("SlitherLink", Math.max(canvas_size, WIDTH), canvas_size+180, bgColor);
         sc.addMouseListener(this);
-        for (int i = 0; i <= size; i++){
-           int offset_y = canvas_size/(2*(size+1))+(canvas_size/(size+1))*i;         
-           for (int j = 0; j <= size; j++){
-               int offset_x = canvas_size/(2*(size+1))+(canvas_size/(size+1))*j;
-               sc.drawDisc(offset_x, offset_y, 5,black);
-           }
-        }
-        for (int n = 0; n < size; n++){
-           int offset_y1 = (canvas_size/(size+1))+(canvas_size/(size+1))*n;
-           for (int m = 0; m < size; m++){
-               int offset_x1 = (canvas_size/(size+1))+(canvas_size/(size+1))*m;           
-               if (game.getPuzzle()[n][m] != -1){
-                   sc.setFont(new Font("Arial",Font.BOLD,20));
-                   sc.drawString(game.getPuzzle()[n][m], offset_x1-4,offset_y1+8, black);
-               }
-           }
-        }
-        int offset_x1 = canvas_size / (size+1);
-        int offset_y1 = canvas_size / (size+1);
-        for (int r = 0; r <= size; r++){
-            for (int c = 0; c < size; c++){
-               if (game.getHorizontal()[r][c] == true){
-                   sc.drawLine(25+offset_x1*c,20+offset_y1*r,offset_x1*c+55,20+offset_y1*r,black);
-              } else if (game.getHorizontal()[r][c] == false){
-                   sc.drawLine(25+offset_x1*c,20+offset_y1*r,offset_x1*c+55,20+offset_y1*r,bgColor);
-              }
-              if (game.getXClickH()[r][c] == true){
-                   sc.drawString("x", 37+offset_x1*c, 25+offset_y1*r, red);
-              } else if (game.getXClickH()[r][c] == false){
-                   sc.drawString("x", 37+offset_x1*c, 25+offset_y1*r, bgColor);
-              }
-            }
-        }
-        for (int r = 0; r < size; r++){
-            for (int c = 0; c <= size; c++){
-               if (game.getVertical()[r][c] == true){
-                   sc.drawLine(20+offset_x1*c,25+offset_y1*r,20+offset_x1*c,offset_y1*r+55,black);
-               } else if (game.getVertical()[r][c] == false){
-                   sc.drawLine(20+offset_x1*c,25+offset_y1*r,20+offset_x1*c,offset_y1*r+55,bgColor);
-               }
-               if (game.getXClickV()[r][c] == true){
-                   sc.drawString("x", 17+offset_x1*c, 44+offset_y1*r, red);
-               } else if (game.getXClickV()[r][c] == false){
-                   sc.drawString("x", 17+offset_x1*c, 44+offset_y1*r, bgColor);
-               }
-            }
-        }
-        sc.drawString("SLITHERLINK", canvas_size/2-64, canvas_size+25, black);
-        sc.drawRectangle(canvas_size/2-36, canvas_size+35,canvas_size/2+36, canvas_size+60,red);
-        sc.drawString("CLEAR", canvas_size/2-33, canvas_size+55, bgColor);
-        sc.drawRectangle(canvas_size/2-40, canvas_size+64,canvas_size/2+40, canvas_size+90,green);
-        sc.drawString("CHECK", canvas_size/2-34, canvas_size+85, bgColor);
+        sc.addMouseMotionListener(this);
+        sc.addMouseWheelListener(this);
+        view = new BoardView(game, canvas_size, canvas_size, bgColor);
+        view.draw(sc);
+        picker = view.picker();
+        sc.setFont(titleFont);
+        sc.drawString("SLITHERLINK", mid-64, canvas_size+25, black);
+        sc.drawRectangle(mid-36, canvas_size+35,mid+36, canvas_size+60,red);
+        sc.drawString("CLEAR", mid-33, canvas_size+55, bgColor);
+        sc.drawRectangle(mid-40, canvas_size+64,mid+40, canvas_size+90,green);
+        sc.drawString("CHECK", mid-34, canvas_size+85, bgColor);
+        sc.drawRectangle(mid-76, canvas_size+94,mid-4, canvas_size+120,black);
+        sc.drawString("UNDO", mid-70, canvas_size+115, bgColor);
+        sc.drawRectangle(mid+4, canvas_size+94,mid+76, canvas_size+120,black);
+        sc.drawString("REDO", mid+11, canvas_size+115, bgColor);
     }
     
     /**
@@ -114,15 +89,9 @@ public class SlitherLink implements MouseListener
      */
     public void horizontalClick(int r, int c)
     {
-        int size = game.size();
-        int canvas_size = (size+1)*40;
-        int offset_x1 = canvas_size / (size+1);
-        int offset_y1 = canvas_size / (size+1);
         game.horizontalClick(r,c);
-        if (game.getHorizontal()[r][c] == true){
-            sc.drawLine(25+offset_x1*c,20+offset_y1*r,offset_x1*c+55,20+offset_y1*r,black);
-        } else if (game.getHorizontal()[r][c] == false){
-            sc.drawLine(25+offset_x1*c,20+offset_y1*r,offset_x1*c+55,20+offset_y1*r,bgColor);
+        if (r >= 0 && r <= game.size() && c >= 0 && c < game.size()){
+            redraw(game.horizontalEdge(r, c));
         }
     }
     
@@ -132,15 +101,9 @@ public class SlitherLink implements MouseListener
      */
     public void verticalClick(int r, int c)
     {
-        int size = game.size();
-        int canvas_size = (size+1)*40;
-        int offset_x1 = canvas_size / (size+1);
-        int offset_y1 = canvas_size / (size+1);
         game.verticalClick(r,c);
-        if (game.getVertical()[r][c] == true){
-            sc.drawLine(20+offset_x1*c,25+offset_y1*r,20+offset_x1*c,offset_y1*r+55,black);
-        } else if (game.getVertical()[r][c] == false){
-            sc.drawLine(20+offset_x1*c,25+offset_y1*r,20+offset_x1*c,offset_y1*r+55,bgColor);
+        if (r >= 0 && r < game.size() && c >= 0 && c <= game.size()){
+            redraw(game.verticalEdge(r, c));
         }
     }
     
@@ -150,16 +113,9 @@ public class SlitherLink implements MouseListener
      */
     public void RightClickXV(int r, int c)
     {
-        int size = game.size();
-        int canvas_size = (size+1)*40;
-        int offset_x1 = canvas_size / (size+1);
-        int offset_y1 = canvas_size / (size+1);
         game.RightClickXV(r,c);
-        sc.setFont(new Font("Arial",Font.BOLD,15));
-        if (game.getXClickV()[r][c] == true){
-           sc.drawString("x", 17+offset_x1*c, 44+offset_y1*r, red);
-        } else if (game.getXClickV()[r][c] == false){
-           sc.drawString("x", 17+offset_x1*c, 44+offset_y1*r, bgColor);
+        if (r >= 0 && r < game.size() && c >= 0 && c <= game.size()){
+            redraw(game.verticalEdge(r, c));
         }
     }
     
@@ -169,169 +125,133 @@ public class SlitherLink implements MouseListener
      */
     public void RightClickXH(int r, int c)
     {
-        int size = game.size();
-        int canvas_size = (size+1)*40;
-        int offset_x1 = canvas_size / (size+1);
-        int offset_y1 = canvas_size / (size+1);
         game.RightClickXH(r,c);
-        sc.setFont(new Font("Arial",Font.BOLD,15));
-        if (game.getXClickH()[r][c] == true){
-           sc.drawString("x", 37+offset_x1*c, 25+offset_y1*r, red);
-        } else if (game.getXClickH()[r][c] == false){
-           sc.drawString("x", 37+offset_x1*c, 25+offset_y1*r, bgColor);
+        if (r >= 0 && r <= game.size() && c >= 0 && c < game.size()){
+            redraw(game.horizontalEdge(r, c));
         }
     }
+    
+    /**
+     * Undoes the last move, if there is one, and updates the display.
+     */
+    public void undo()
+    {
+        if (game.undo()){
+            view.clear();
+            view.draw(sc);
+        }
+    }
+
+    /**
+     * Redoes the last move undone, if there is one, and updates the display.
+     */
+    public void redo()
+    {
+        if (game.redo()){
+            view.clear();
+            view.draw(sc);
+        }
+    }
+
+    /**
+     * Redraws the part of the display showing edge e and the squares and dots beside it, after it changes.
+     */
+    private void redraw(int e)
+    {
+        view.update(e);
+        view.draw(sc, view.bounds(e));
+    }
    
     /**
      * Actions for a mouse press.
-     * Finds nea
+     * Toggles the line (left button) or the Red X (right button) on the edge under the mouse,
+     * or presses the CLEAR, CHECK, UNDO or REDO button.
      */
     public void mousePressed(MouseEvent e) 
     {
         int size = game.size();
-        int canvas_size = (size+1)*40;
-        int x = e.getX()-20;
-        int y = e.getY()-20;
-        int offset_x1 = canvas_size / (2*(size+1));
-        int offset_y1 = canvas_size / (2*(size+1));
-        System.out.println(e.getX()+" "+e.getY());
-        if (e.getButton() == 3){
-            if (x >= 0 && x <= size*40 && y >= 0 && y <= size*40){
-              for (int i = 0; i <= size; i++){
-                offset_y1 = canvas_size/(2*(size+1)) + (canvas_size/(size+1))*i;
-                for (int j = 0; j <= size; j++){
-                    offset_x1 = canvas_size/(2*(size+1)) + (canvas_size/(size+1))*j;        
-                    double dist = Math.sqrt(Math.pow(x-(offset_x1-20),2)+Math.pow(y-(offset_y1-20),2)); 
-                    int distx = x-(offset_x1-20);
-                    int disty = y-(offset_y1-20);
-                    int xi = ((offset_y1-20)/40);
-                    int yi = ((offset_x1-20)/40);
-                    if (dist < 20 && distx > 0 && disty > 0 && Math.abs(distx) > Math.abs(disty)){
-                        if (game.getHorizontal()[xi][yi] == true){
-                            horizontalClick(xi,yi);
-                        }
-                        RightClickXH(xi,yi);
-                    } else if (dist < 20 && distx > 0 && disty > 0 && Math.abs(distx) < Math.abs(disty)){
-                        if (game.getVertical()[xi][yi] == true){
-                            verticalClick(xi,yi);
-                        }
-                        RightClickXV(xi,yi);
-                    } else if (dist < 20 && distx > 0 && disty < 0 && Math.abs(distx) < Math.abs(disty)){
-                        if (game.getVertical()[xi-1][yi] == true){
-                            verticalClick(xi-1,yi);
-                        }
-                        RightClickXV(xi-1,yi);
-                    } else if (dist < 20 && distx > 0 && disty < 0 && Math.abs(distx) > Math.abs(disty)){
-                        if (game.getHorizontal()[xi][yi] == true){
-                            horizontalClick(xi,yi);
-                        }
-                        RightClickXH(xi,yi);
-                    } else if (dist < 20 && distx < 0 && disty < 0 && Math.abs(distx) > Math.abs(disty)){
-                        if (game.getHorizontal()[xi][yi-1] == true){
-                            horizontalClick(xi,yi-1);
-                        }
-                        RightClickXH(xi,yi-1);
-                    } else if (dist < 20 && distx < 0 && disty < 0 && Math.abs(distx) < Math.abs(disty)){
-                        if (game.getVertical()[xi-1][yi] == true){
-                            verticalClick(xi-1,yi);
-                        }
-                        RightClickXV(xi-1,yi);
-                    } else if (dist < 20 && distx < 0 && disty > 0 && Math.abs(distx) < Math.abs(disty)){
-                        if (game.getVertical()[xi][yi] == true){
-                            verticalClick(xi,yi);
-                        }
-                        RightClickXV(xi,yi);
-                    } else if (dist < 20 && distx < 0 && disty > 0 && Math.abs(distx) > Math.abs(disty)){
-                        if (game.getHorizontal()[xi][yi-1] == true){
-                            horizontalClick(xi,yi-1);
-                        }
-                        RightClickXH(xi,yi-1);
-                    }
-                    }
-              }
+        int canvas_size = Math.min((size+1)*40, VIEW);
+        int mid = Math.max(canvas_size, WIDTH)/2;
+        int edge = e.getY() < canvas_size ? picker.pick(e.getX(), e.getY()) : -1;
+        if (e.getButton() == 2){
+            dragX = e.getX();
+            dragY = e.getY();
+        } else if (e.getButton() == 3){
+            if (edge >= 0){
+                clickEdge(edge, true);
             }
         } else if (e.getButton() == 1){
-            if (x >= 0 && x <= size*40 && y >= 0 && y <= size*40){
-            for (int i = 0; i <= size; i++){
-                offset_y1 = canvas_size/(2*(size+1)) + (canvas_size/(size+1))*i;         
-                for (int j = 0; j <= size; j++){
-                    offset_x1 = canvas_size/(2*(size+1)) + (canvas_size/(size+1))*j;          
-                    double dist = Math.sqrt(Math.pow(x-(offset_x1-20),2)+Math.pow(y-(offset_y1-20),2)); 
-                    int distx = x-(offset_x1-20);
-                    int disty = y-(offset_y1-20);
-                    int xi = ((offset_y1-20)/40);
-                    int yi = ((offset_x1-20)/40);
-                    if (dist < 20 && distx > 0 && disty > 0 && Math.abs(distx) > Math.abs(disty)){
-                        if (game.getXClickH()[xi][yi] == true){
-                            RightClickXH(xi,yi);
-                        }
-                        horizontalClick(xi,yi);
-                    } else if (dist < 20 && distx > 0 && disty > 0 && Math.abs(distx) < Math.abs(disty)){
-                        if (game.getXClickV()[xi][yi] == true){
-                            RightClickXV(xi,yi);
-                        }
-                        verticalClick(xi,yi);
-                    } else if (dist < 20 && distx > 0 && disty < 0 && Math.abs(distx) < Math.abs(disty)){
-                        if (game.getXClickV()[xi-1][yi] == true){
-                            RightClickXV(xi-1,yi);
-                        }
-                        verticalClick(xi-1,yi);
-                    } else if (dist < 20 && distx > 0 && disty < 0 && Math.abs(distx) > Math.abs(disty)){
-                        if (game.getXClickH()[xi][yi] == true){
-                            RightClickXH(xi,yi);
-                        }
-                        horizontalClick(xi,yi);
-                    } else if (dist < 20 && distx < 0 && disty < 0 && Math.abs(distx) > Math.abs(disty)){
-                        if (game.getXClickH()[xi][yi-1] == true){
-                            RightClickXH(xi,yi-1);
-                        }
-                        horizontalClick(xi,yi-1);
-                    } else if (dist < 20 && distx < 0 && disty < 0 && Math.abs(distx) < Math.abs(disty)){
-                        if (game.getXClickV()[xi-1][yi] == true){
-                            RightClickXV(xi-1,yi);
-                        }
-                        verticalClick(xi-1,yi);
-                    } else if (dist < 20 && distx < 0 && disty > 0 && Math.abs(distx) < Math.abs(disty)){
-                        if (game.getXClickV()[xi][yi] == true){
-                            RightClickXV(xi,yi);
-                        }
-                        verticalClick(xi,yi);
-                    } else if (dist < 20 && distx < 0 && disty > 0 && Math.abs(distx) > Math.abs(disty)){
-                        if (game.getXClickH()[xi][yi-1] == true){
-                            RightClickXH(xi,yi-1);
-                        }
-                        horizontalClick(xi,yi-1);
-                    }
+            if (edge >= 0){
+                clickEdge(edge, false);
+            } else if (e.getX() >= mid-36 && e.getX() <= mid+36 && e.getY() <= canvas_size+60 && e.getY() >= canvas_size+35) {
+                game.clear();
+                view.clear();
+                view.draw(sc);
+            } else if (e.getX() >= mid-40 && e.getX() <= mid+40 && e.getY() <= canvas_size+90 && e.getY() >= canvas_size+64){
+                SolutionReport report = new SolutionReport(game);
+                if (!report.isFinished()){
+                    sc.setFont(messageFont);
+                    sc.drawString("Incorrect!", mid-30, canvas_size+140, red);
+                    sc.drawString(report.getMessage(), mid-50, canvas_size+160, red);
+                } else{
+                    sc.setFont(messageFont);
+                    sc.drawString("Good job!", mid-30,canvas_size+140, green);
+                }
+            } else if (e.getY() <= canvas_size+120 && e.getY() >= canvas_size+94){
+                if (e.getX() >= mid-76 && e.getX() <= mid-4){
+                    undo();
+                } else if (e.getX() >= mid+4 && e.getX() <= mid+76){
+                    redo();
                 }
-             }  
-        } else if (e.getX() >= canvas_size/2-36 && e.getX() <= canvas_size/2+36 && e.getY() <= canvas_size+60 && e.getY() >= canvas_size+35) {
-            offset_x1 = canvas_size / (size+1);
-            offset_y1 = canvas_size / (size+1);
-            game.clear();
-            for (int r = 0; r <= size; r++){
-              for (int c = 0; c < size; c++){
-              sc.drawLine(25+offset_x1*c,20+offset_y1*r,offset_x1*c+55,20+offset_y1*r,bgColor);  
-              sc.drawString("x", 37+offset_x1*c, 25+offset_y1*r, bgColor);
-             }
-            }
-            for (int r = 0; r < size; r++){
-             for (int c = 0; c <= size; c++){
-               sc.drawLine(20+offset_x1*c,25+offset_y1*r,20+offset_x1*c,offset_y1*r+55,bgColor);
-               sc.drawString("x", 17+offset_x1*c, 44+offset_y1*r, bgColor);
-             }
             }
-          } else if (e.getX() >= canvas_size/2-40 && e.getX() <= canvas_size/2+40 && e.getY() <= canvas_size+90 && e.getY() >= canvas_size+64){
-              if (AnalyzeSolution.finished(game) != "Finished"){
-                  sc.setFont(new Font("Arial",Font.ITALIC,15));  
-                  sc.drawString("Incorrect!", canvas_size/2-30, canvas_size+110, red);
-                  sc.drawString(AnalyzeSolution.finished(game), canvas_size/2-50, canvas_size+130, red);
-              } else{
-                  sc.setFont(new Font("Arial",Font.ITALIC,15));
-                  sc.drawString("Good job!", canvas_size/2-30,canvas_size+110, green);
-              }
-           }
         }
     }
+
+    /**
+     * Toggles the Red X on edge if cross, otherwise the line.
+     * Whatever else is on the edge is replaced in the same move, so one undo takes back the whole click.
+     */
+    private void clickEdge(int edge, boolean cross)
+    {
+        int n = game.size();
+        int h = n*(n+1);
+        if (edge < h){
+            int r = edge / n, c = edge % n;
+            if (cross) RightClickXH(r, c);
+            else horizontalClick(r, c);
+        } else {
+            int r = (edge-h) / (n+1), c = (edge-h) % (n+1);
+            if (cross) RightClickXV(r, c);
+            else verticalClick(r, c);
+        }
+    }
+
+    /**
+     * Actions for dragging the mouse: the middle button moves the view of the board.
+     */
+    public void mouseDragged(MouseEvent e)
+    {
+        if ((e.getModifiersEx() & MouseEvent.BUTTON2_DOWN_MASK) != 0){
+            view.pan(dragX - e.getX(), dragY - e.getY());
+            dragX = e.getX();
+            dragY = e.getY();
+            view.draw(sc);
+            picker = view.picker();
+        }
+    }
+
+    /**
+     * Actions for the mouse wheel: zooms the view of the board in or out around the mouse.
+     */
+    public void mouseWheelMoved(MouseWheelEvent e)
+    {
+        if (e.getY() < Math.min((game.size()+1)*40, VIEW) && view.zoom(-e.getWheelRotation(), e.getX(), e.getY())){
+            view.draw(sc);
+            picker = view.picker();
+        }
+    }
+
+    public void mouseMoved(MouseEvent e) {}
     public void mouseClicked(MouseEvent e) {}
     public void mouseReleased(MouseEvent e) {}
     public void mouseEntered(MouseEvent e) {}
@@ -0,0 +1,213 @@
+/**
+ * SolutionReport describes everything that is wrong with the current solution of a puzzle:
+ * every square with the wrong number of line segments, every dot where a line ends or branches,
+ * and the pieces of line with the number of segments in each.
+ * It is made in one pass over the edges, and describes the board as it was when it was made.
+ *
+ * getMessage gives the same message as AnalyzeSolution.finished.
+ * Squares are given as {r,c} and dots as {r,c}, in no particular order.
+ *
+ * @author Jaimin Kirankumar Kerai
+ * @version 1.0
+ */
+import java.util.ArrayList;
+import java.util.Arrays;
+
+public class SolutionReport
+{
+    private int size;             // the size of the puzzle
+    private int[] badSquares;     // the squares with the wrong number of lines, square r,c as r*size+c
+    private int[] danglingDots;   // the dots with one line segment, dot r,c as r*(size+1)+c
+    private int[] branchingDots;  // the dots with three or more line segments
+    private int numDangling;      // the number of danglingDots found so far
+    private int numBranching;     // the number of branchingDots found so far
+    private int[] lengths;        // the number of line segments in each piece of line
+    private String message;       // the message from AnalyzeSolution.finished
+
+    /**
+     * Creates the report on the current solution of p.
+     */
+    public SolutionReport(Puzzle p)
+    {
+        size = p.size();
+        int width = size+1;
+        badSquares = new int[p.numBadSquares()];
+        for (int i = 0; i < badSquares.length; i++){
+            badSquares[i] = p.badSquare(i);
+        }
+        danglingDots = new int[p.numDangling()];
+        branchingDots = new int[p.numBranching()];
+
+        // the one pass: the piece each segment belongs to, and the dots where a line ends or branches
+        int[] pieces = new int[p.numLines()];
+        int lines = 0;
+        int start = -1;
+        for (int e = 0; e < p.numEdges(); e++){
+            if (p.getEdge(e) != Puzzle.LINE) continue;
+            int a = firstDot(e);
+            pieces[lines++] = p.component(a / width, a % width);
+            start = a;
+            checkDot(p, a, e);
+            checkDot(p, lastDot(e), e);
+        }
+
+        // segments with the same root are in the same piece
+        Arrays.sort(pieces);
+        lengths = new int[p.numComponents()];
+        int count = 0;
+        for (int i = 0; i < lines; i++){
+            if (i == 0 || pieces[i] != pieces[i-1]) count += 1;
+            lengths[count-1] += 1;
+        }
+        message = message(p, start);
+    }
+
+    /**
+     * Records Dot d, at one end of the line segment on edge e, if the line ends or branches there.
+     */
+    private void checkDot(Puzzle p, int d, int e)
+    {
+        int degree = p.degree(d / (size+1), d % (size+1));
+        if (degree == 1){
+            danglingDots[numDangling++] = d;
+        } else if (degree >= 3 && firstLine(p, d, e)){
+            branchingDots[numBranching++] = d;
+        }
+    }
+
+    /**
+     * Returns the message from AnalyzeSolution.finished for the board.
+     * The line through Dot start is the one finished traces.
+     */
+    private String message(Puzzle p, int start)
+    {
+        if (badSquares.length > 0){
+            return "Wrong number";
+        } else if (danglingDots.length == 0 && branchingDots.length == 0){
+            return lengths.length == 1 ? "Finished" : "Disconnected lines";
+        }
+        // the trace stops at the first dot where the line through start ends or branches
+        int width = size+1;
+        int piece = p.component(start / width, start % width);
+        boolean ends = false, branches = false;
+        for (int d : danglingDots){
+            ends |= p.component(d / width, d % width) == piece;
+        }
+        for (int d : branchingDots){
+            branches |= p.component(d / width, d % width) == piece;
+        }
+        if (ends && branches){
+            // which comes first depends on the route, so follow it
+            return AnalyzeSolution.tracePath(p, start / width, start % width);
+        } else if (ends){
+            return "Dangling end";
+        } else if (branches){
+            return "Branching line";
+        } else {
+            // a closed loop, with broken lines elsewhere
+            return "Disconnected lines";
+        }
+    }
+
+    /**
+     * Returns the message from AnalyzeSolution.finished.
+     */
+    public String getMessage()
+    {
+        return message;
+    }
+
+    /**
+     * Returns true iff the puzzle is finished: all squares are good, and the lines form a single closed loop.
+     */
+    public boolean isFinished()
+    {
+        return message.equals("Finished");
+    }
+
+    /**
+     * Returns every square surrounded by the wrong number of line segments, each as {r,c}.
+     */
+    public ArrayList<int[]> getBadSquares()
+    {
+        return unpack(badSquares, size);
+    }
+
+    /**
+     * Returns every dot with exactly one line segment, each as {r,c}.
+     */
+    public ArrayList<int[]> getDanglingDots()
+    {
+        return unpack(danglingDots, size+1);
+    }
+
+    /**
+     * Returns every dot with three or more line segments, each as {r,c}.
+     */
+    public ArrayList<int[]> getBranchingDots()
+    {
+        return unpack(branchingDots, size+1);
+    }
+
+    /**
+     * Returns the number of separate pieces of line.
+     */
+    public int numComponents()
+    {
+        return lengths.length;
+    }
+
+    /**
+     * Returns the number of line segments in each piece of line.
+     */
+    public int[] getComponentLengths()
+    {
+        return lengths.clone();
+    }
+
+    /**
+     * Returns the items of packed, each i*width+j, as {i,j}.
+     */
+    private static ArrayList<int[]> unpack(int[] packed, int width)
+    {
+        ArrayList<int[]> items = new ArrayList<>();
+        for (int k : packed){
+            items.add(new int[] {k / width, k % width});
+        }
+        return items;
+    }
+
+    /**
+     * Returns true iff e is the lowest-numbered line segment at Dot d,
+     * so that each dot is counted once however many segments meet there.
+     */
+    private boolean firstLine(Puzzle p, int d, int e)
+    {
+        int r = d / (size+1), c = d % (size+1);
+        return !(c > 0 && p.horizontalEdge(r, c-1) < e && p.getHorizontal(r, c-1))
+            && !(c < size && p.horizontalEdge(r, c) < e && p.getHorizontal(r, c))
+            && !(r > 0 && p.verticalEdge(r-1, c) < e && p.getVertical(r-1, c))
+            && !(r < size && p.verticalEdge(r, c) < e && p.getVertical(r, c));
+    }
+
+    /**
+     * Returns the left or top end of edge e, as r*(size+1)+c.
+     */
+    private int firstDot(int e)
+    {
+        int h = (size+1)*size;
+        if (e < h){
+            return (e / size)*(size+1) + e % size;
+        } else {
+            return e-h;
+        }
+    }
+
+    /**
+     * Returns the right or bottom end of edge e, as r*(size+1)+c.
+     */
+    private int lastDot(int e)
+    {
+        return firstDot(e) + (e < (size+1)*size ? 1 : size+1);
+    }
+}
@@ -0,0 +1,114 @@
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * This class provides unit test cases for the SolutionReport class.
+ * @author Jaimin Kirankumar Kerai
+ * @version 1.0
+ */
+public class SolutionReportTest
+{
+    private Puzzle p;
+
+    /**
+     * Sets up the test fixture.
+     *
+     * Called before every test case method.
+     */
+    @Before
+    public void setUp()
+    {
+        p = new Puzzle("eg3_1.txt");
+    }
+
+    // Returns the items of xs as "i,j" strings, sorted.
+    private String items(ArrayList<int[]> xs)
+    {
+        ArrayList<String> s = new ArrayList<>();
+        for (int[] x : xs)
+            s.add(x[0] + "," + x[1]);
+        s.sort(null);
+        return s.toString();
+    }
+
+    @Test
+    public void testEmpty()
+    {
+        SolutionReport r = new SolutionReport(p);
+        assertEquals("Wrong number", r.getMessage());
+        assertFalse(r.isFinished());
+        assertEquals("[0,2, 1,2, 2,0, 2,2]", items(r.getBadSquares()));
+        assertEquals(0, r.numComponents());
+        assertEquals(0, r.getComponentLengths().length);
+        assertEquals("[]", items(r.getDanglingDots()));
+        assertEquals("[]", items(r.getBranchingDots()));
+    }
+
+    @Test
+    public void testFinished()
+    {
+        new Search(p).solve();
+        SolutionReport r = new SolutionReport(p);
+        assertEquals("Finished", r.getMessage());
+        assertTrue(r.isFinished());
+        assertEquals(1, r.numComponents());
+        assertEquals(p.numLines(), r.getComponentLengths()[0]);
+        assertEquals("[]", items(r.getBadSquares()));
+    }
+
+    @Test
+    public void testPieces()
+    {
+        Puzzle q = new Puzzle(new int[][] {{-1, -1, -1}, {-1, -1, -1}, {-1, -1, -1}});
+        // a line of two segments, and a branch of three segments meeting at Dot 2,2
+        q.horizontalClick(0, 0);
+        q.horizontalClick(0, 1);
+        q.horizontalClick(2, 1);
+        q.horizontalClick(2, 2);
+        q.verticalClick(1, 2);
+        SolutionReport r = new SolutionReport(q);
+        assertEquals(2, r.numComponents());
+        int[] lengths = r.getComponentLengths();
+        Arrays.sort(lengths);
+        assertEquals("[2, 3]", Arrays.toString(lengths));
+        assertEquals("[0,0, 0,2, 1,2, 2,1, 2,3]", items(r.getDanglingDots()));
+        assertEquals("[2,2]", items(r.getBranchingDots()));
+        assertEquals(AnalyzeSolution.finished(q), r.getMessage());
+
+        // a fourth segment at Dot 2,2 still counts it once
+        q.verticalClick(2, 2);
+        r = new SolutionReport(q);
+        assertEquals("[2,2]", items(r.getBranchingDots()));
+        assertEquals("[0,0, 0,2, 1,2, 2,1, 2,3, 3,2]", items(r.getDanglingDots()));
+        assertEquals(AnalyzeSolution.finished(q), r.getMessage());
+    }
+
+    @Test
+    public void testClosedLoops()
+    {
+        Puzzle q = new Puzzle(new int[][] {{-1, -1, -1}, {-1, -1, -1}, {-1, -1, -1}});
+        for (int c : new int[] {0, 2})
+        {
+            q.horizontalClick(0, c);
+            q.horizontalClick(1, c);
+            q.verticalClick(0, c);
+            q.verticalClick(0, c+1);
+        }
+        SolutionReport r = new SolutionReport(q);
+        assertEquals("Disconnected lines", r.getMessage());
+        assertEquals("[4, 4]", Arrays.toString(r.getComponentLengths()));
+
+        // closed loops and a broken line: finished traces one of the loops,
+        // but the report still finds the ends of the broken line
+        q.horizontalClick(3, 1);
+        r = new SolutionReport(q);
+        assertEquals(AnalyzeSolution.finished(q), r.getMessage());
+        assertEquals("Disconnected lines", r.getMessage());
+        assertEquals(3, r.numComponents());
+        assertEquals("[3,1, 3,2]", items(r.getDanglingDots()));
+    }
+}
@@ -0,0 +1,532 @@
+/**
+ * Solver fills in the edges of a Slither Link puzzle by deduction.
+ * It works directly on the edges of a Puzzle: a deduced line is set to LINE,
+ * and an edge that cannot be a line is set to CROSS.
+ * Lines and X's already in the puzzle are taken as given.
+ *
+ * Deduction is driven by a queue of squares and dots. Whenever an edge changes,
+ * only the two squares beside it and the two dots at its ends are looked at again.
+ * Every change goes through the puzzle's journal, which is also what undo rolls back.
+ *
+ * A square is checked by looking up the edges around it in the PatternTable,
+ * which gives every edge forced by its number and the corners of the square at once.
+ * The older rule-by-rule checks can be used instead, to compare against.
+ *
+ * @author Jaimin Kirankumar Kerai
+ * @version 1.0
+ */
+public class Solver
+{
+    /**
+     * The outcome of solving.
+     * SOLVED:        the edges form a single loop that agrees with every number.
+     * STUCK:         no more edges can be deduced, and some are still unknown.
+     * CONTRADICTION: the puzzle has no solution that agrees with the given edges.
+     * ABORTED:       a search ran out of time or nodes, or was cancelled, before it could tell.
+     */
+    public enum Result { SOLVED, STUCK, CONTRADICTION, ABORTED }
+
+    private Puzzle p;              // the puzzle being solved
+    private int n;                 // the size of the puzzle
+    private int[] queue;           // the squares and dots waiting to be looked at, as a ring
+    private boolean[] queued;      // true for each square or dot that is in the queue
+    private int head;              // the position of the next item in queue
+    private int length;            // the number of items in queue
+    private int unknown;           // the number of edges that are neither LINE nor CROSS
+    private boolean contradiction; // true once a deduction has failed
+    private boolean lookup;        // true to check squares with the PatternTable, false for rule by rule
+    private int[] window;          // the edges of the PatternTable window of the square being checked
+
+    // Square r,c is item r*n+c in the queue, and Dot r,c is item n*n+r*(n+1)+c.
+
+    /**
+     * Creates a solver for p.
+     */
+    public Solver(Puzzle p)
+    {
+        this.p = p;
+        n = p.size();
+        int items = n*n + (n+1)*(n+1);
+        queue = new int[items];
+        queued = new boolean[items];
+        lookup = true;
+        window = new int[PatternTable.EDGES];
+        // each edge is set at most once between a mark and its undo
+        p.reserveHistory(p.numEdges());
+        for (int e = 0; e < p.numEdges(); e++){
+            if (p.getEdge(e) == Puzzle.UNKNOWN) unknown += 1;
+        }
+    }
+
+    /**
+     * Chooses how squares are checked: with the PatternTable if lookup is true, which is the default,
+     * otherwise rule by rule: the number, and the corner rules for 1's and 3's.
+     */
+    public void setLookup(boolean lookup)
+    {
+        this.lookup = lookup;
+    }
+
+    /**
+     * Returns the puzzle being solved.
+     */
+    public Puzzle getPuzzle()
+    {
+        return p;
+    }
+
+    /**
+     * Deduces as many edges as possible, starting from every square and dot.
+     * If the puzzle is solved, the edges left unknown are set to CROSS.
+     */
+    public Result solve()
+    {
+        patterns();
+        for (int i = 0; i < queue.length; i++){
+            enqueue(i);
+        }
+        return propagate();
+    }
+
+    /**
+     * Deduces edges until the queue is empty or a contradiction is found,
+     * and reports the state of the puzzle.
+     */
+    public Result propagate()
+    {
+        while (length > 0 && !contradiction){
+            int item = queue[head];
+            head = (head + 1) % queue.length;
+            length -= 1;
+            queued[item] = false;
+            if (item < n*n){
+                checkSquare(item / n, item % n);
+            } else {
+                checkDot((item - n*n) / (n+1), (item - n*n) % (n+1));
+            }
+        }
+        if (contradiction){
+            clearQueue();
+            return Result.CONTRADICTION;
+        } else if (p.isSingleLoop() && p.numBadSquares() == 0){
+            for (int e = 0; e < p.numEdges(); e++){
+                if (p.getEdge(e) == Puzzle.UNKNOWN) set(e, Puzzle.CROSS);
+            }
+            return Result.SOLVED;
+        } else if (unknown == 0){
+            return Result.CONTRADICTION;
+        } else {
+            return Result.STUCK;
+        }
+    }
+
+    /**
+     * Returns the number of edges that are neither LINE nor CROSS.
+     */
+    public int unknownEdges()
+    {
+        return unknown;
+    }
+
+    /**
+     * Returns a mark for the current state of the puzzle, to be passed to undo.
+     */
+    public long mark()
+    {
+        return p.checkpoint();
+    }
+
+    /**
+     * Puts every edge set since mark was taken back to UNKNOWN, and forgets any contradiction.
+     */
+    public void undo(long mark)
+    {
+        unknown += p.changesSince(mark);
+        p.rollback(mark);
+        contradiction = false;
+        clearQueue();
+    }
+
+    /**
+     * Sets edge e to state, which is LINE or CROSS, and queues the squares and dots around it.
+     * Returns false, and records a contradiction, if e already has the other state,
+     * or if a line would close a loop that is not a solution.
+     * Does nothing if e is -1, i.e. off the grid, and state is CROSS.
+     */
+    public boolean assign(int e, int state)
+    {
+        int current = e < 0 ? Puzzle.CROSS : p.getEdge(e);
+        if (current == state){
+            return true;
+        } else if (current != Puzzle.UNKNOWN){
+            contradiction = true;
+            return false;
+        }
+        boolean closes = state == Puzzle.LINE && closesLoop(e);
+        set(e, state);
+        enqueueAround(e);
+        if (closes && !(p.isSingleLoop() && p.numBadSquares() == 0)){
+            contradiction = true;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Sets the unknown edge e to state.
+     */
+    private void set(int e, int state)
+    {
+        p.setEdge(e, state);
+        unknown -= 1;
+    }
+
+    /**
+     * Applies the patterns that depend only on the numbers: adjacent and diagonal 3's.
+     */
+    private void patterns()
+    {
+        for (int r = 0; r < n; r++){
+            for (int c = 0; c < n; c++){
+                if (p.getNumber(r, c) != 3) continue;
+                if (c+1 < n && p.getNumber(r, c+1) == 3 && !onlyLoop(r, c, r, c+1)){
+                    // the three vertical edges are lines, and the shared edge cannot be continued
+                    assign(vertical(r, c), Puzzle.LINE);
+                    assign(vertical(r, c+1), Puzzle.LINE);
+                    assign(vertical(r, c+2), Puzzle.LINE);
+                    assign(vertical(r-1, c+1), Puzzle.CROSS);
+                    assign(vertical(r+1, c+1), Puzzle.CROSS);
+                }
+                if (r+1 < n && p.getNumber(r+1, c) == 3 && !onlyLoop(r, c, r+1, c)){
+                    assign(horizontal(r, c), Puzzle.LINE);
+                    assign(horizontal(r+1, c), Puzzle.LINE);
+                    assign(horizontal(r+2, c), Puzzle.LINE);
+                    assign(horizontal(r+1, c-1), Puzzle.CROSS);
+                    assign(horizontal(r+1, c+1), Puzzle.CROSS);
+                }
+                if (r+1 < n && c+1 < n && p.getNumber(r+1, c+1) == 3){
+                    // the outer corners of diagonal 3's are lines
+                    assign(horizontal(r, c), Puzzle.LINE);
+                    assign(vertical(r, c), Puzzle.LINE);
+                    assign(horizontal(r+2, c+1), Puzzle.LINE);
+                    assign(vertical(r+1, c+2), Puzzle.LINE);
+                }
+                if (r+1 < n && c > 0 && p.getNumber(r+1, c-1) == 3){
+                    assign(horizontal(r, c), Puzzle.LINE);
+                    assign(vertical(r, c+1), Puzzle.LINE);
+                    assign(horizontal(r+2, c-1), Puzzle.LINE);
+                    assign(vertical(r+1, c-1), Puzzle.LINE);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns true iff the loop around the two squares r1,c1 and r2,c2 alone,
+     * which are side by side, agrees with every number in the puzzle.
+     * The adjacent 3's pattern holds only when that loop is not the solution.
+     */
+    private boolean onlyLoop(int r1, int c1, int r2, int c2)
+    {
+        for (int r = 0; r < n; r++){
+            for (int c = 0; c < n; c++){
+                // the loop has three sides of each of the pair, and one side of each square next to them
+                int sides = (r == r1 && c == c1 || r == r2 && c == c2) ? 3
+                          : Math.abs(r-r1) + Math.abs(c-c1) == 1 || Math.abs(r-r2) + Math.abs(c-c2) == 1 ? 1 : 0;
+                int number = p.getNumber(r, c);
+                if (number != -1 && number != sides){
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Deduces what the number in Square r,c forces on the edges around it.
+     */
+    private void checkSquare(int r, int c)
+    {
+        int number = p.getNumber(r, c);
+        if (number == -1){
+            return;
+        } else if (!lookup){
+            checkRules(r, c, number);
+            return;
+        }
+        int lines = 0, open = 0;
+        for (int k = 0; k < 4; k++){
+            int s = p.getEdge(side(r, c, k));
+            if (s == Puzzle.LINE) lines += 1;
+            else if (s == Puzzle.UNKNOWN) open += 1;
+        }
+        if (lines > number || lines + open < number){
+            contradiction = true;
+            return;
+        } else if (open == 0){
+            // the corners are left to checkDot
+            return;
+        }
+        int states = 0;
+        for (int i = PatternTable.EDGES-1; i >= 0; i--){
+            int e = windowEdge(r, c, i);
+            window[i] = e;
+            states = states*3 + (e < 0 ? Puzzle.CROSS : p.getEdge(e));
+        }
+        int possible = PatternTable.lookup(number, states);
+        if (possible == 0){
+            contradiction = true;
+            return;
+        }
+        for (int i = 0; i < PatternTable.EDGES; i++){
+            int e = window[i];
+            if (e < 0 || p.getEdge(e) != Puzzle.UNKNOWN) continue;
+            if ((possible >> i & 1) == 0){
+                assign(e, Puzzle.CROSS);
+            } else if ((possible >> (PatternTable.EDGES + i) & 1) == 0){
+                assign(e, Puzzle.LINE);
+            }
+        }
+    }
+
+    /**
+     * Applies the rules for Square r,c holding number: the number must be met exactly,
+     * and the corner rules for 1's and 3's.
+     */
+    private void checkRules(int r, int c, int number)
+    {
+        int top = horizontal(r, c), right = vertical(r, c+1), bottom = horizontal(r+1, c), left = vertical(r, c);
+        int lines = 0, open = 0;
+        for (int k = 0; k < 4; k++){
+            int s = p.getEdge(side(r, c, k));
+            if (s == Puzzle.LINE) lines += 1;
+            else if (s == Puzzle.UNKNOWN) open += 1;
+        }
+        if (lines > number || lines + open < number){
+            contradiction = true;
+            return;
+        }
+        if (open > 0 && (lines == number || lines + open == number)){
+            int state = lines == number ? Puzzle.CROSS : Puzzle.LINE;
+            for (int k = 0; k < 4; k++){
+                int e = side(r, c, k);
+                if (p.getEdge(e) == Puzzle.UNKNOWN) assign(e, state);
+            }
+            return;
+        }
+        if (number == 1 || number == 3){
+            corner(number, r, c, r, c, top, left, right, bottom);
+            corner(number, r, c, r, c+1, top, right, left, bottom);
+            corner(number, r, c, r+1, c+1, bottom, right, left, top);
+            corner(number, r, c, r+1, c, bottom, left, right, top);
+        }
+    }
+
+    /**
+     * Applies the corner rules for a 1 or 3 in Square r,c at Dot dr,dc.
+     * a and b are the sides of the square that meet at the dot, and far1 and far2 are the other two.
+     */
+    private void corner(int number, int r, int c, int dr, int dc, int a, int b, int far1, int far2)
+    {
+        int crossed = 0, lines = 0, open = -2;
+        for (int k = 0; k < 4; k++){
+            int e = dotEdge(dr, dc, k);
+            if (e == a || e == b) continue;
+            int s = e < 0 ? Puzzle.CROSS : p.getEdge(e);
+            if (s == Puzzle.CROSS) crossed += 1;
+            else if (s == Puzzle.LINE) lines += 1;
+            else open = e;
+        }
+        if (crossed == 2){
+            // the loop cannot pass through this corner, so a 1 avoids it and a 3 turns around it
+            int state = number == 1 ? Puzzle.CROSS : Puzzle.LINE;
+            assign(a, state);
+            assign(b, state);
+        } else if (lines == 1 && number == 3){
+            // the loop enters the corner, so it uses exactly one of a and b, and both far sides
+            if (open != -2) assign(open, Puzzle.CROSS);
+            assign(far1, Puzzle.LINE);
+            assign(far2, Puzzle.LINE);
+        } else if (lines == 1 && crossed == 1 && number == 1){
+            // the loop must turn into the square here, so its one line is a or b
+            assign(far1, Puzzle.CROSS);
+            assign(far2, Puzzle.CROSS);
+        }
+    }
+
+    /**
+     * Applies the rules for Dot r,c: it has either no lines or exactly two,
+     * and a line must not close a loop early.
+     */
+    private void checkDot(int r, int c)
+    {
+        int lines = 0, open = 0;
+        for (int k = 0; k < 4; k++){
+            int e = dotEdge(r, c, k);
+            int s = e < 0 ? Puzzle.CROSS : p.getEdge(e);
+            if (s == Puzzle.LINE) lines += 1;
+            else if (s == Puzzle.UNKNOWN) open += 1;
+        }
+        if (lines > 2 || lines == 1 && open == 0){
+            contradiction = true;
+        } else if (open > 0 && (lines == 2 || lines == 0 && open == 1)){
+            for (int k = 0; k < 4; k++){
+                int e = dotEdge(r, c, k);
+                if (e >= 0 && p.getEdge(e) == Puzzle.UNKNOWN) assign(e, Puzzle.CROSS);
+            }
+        } else if (lines == 1 && open == 1){
+            for (int k = 0; k < 4; k++){
+                int e = dotEdge(r, c, k);
+                if (e >= 0 && p.getEdge(e) == Puzzle.UNKNOWN) assign(e, Puzzle.LINE);
+            }
+        } else if (lines == 1){
+            for (int k = 0; k < 4; k++){
+                int e = dotEdge(r, c, k);
+                if (e >= 0 && p.getEdge(e) == Puzzle.UNKNOWN && closesLoop(e) && !solvedBy(e)){
+                    assign(e, Puzzle.CROSS);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns true iff a line on edge e would join two dots that are already joined.
+     */
+    private boolean closesLoop(int e)
+    {
+        int a = firstDot(e), b = lastDot(e);
+        return AnalyzeSolution.degree(p, a / (n+1), a % (n+1)) == 1 && AnalyzeSolution.degree(p, b / (n+1), b % (n+1)) == 1
+            && p.connected(a / (n+1), a % (n+1), b / (n+1), b % (n+1));
+    }
+
+    /**
+     * Returns true iff a line on the unknown edge e would finish the puzzle.
+     */
+    private boolean solvedBy(int e)
+    {
+        if (p.numComponents() != 1) return false;
+        long mark = p.checkpoint();
+        p.setEdge(e, Puzzle.LINE);
+        boolean solved = p.isSingleLoop() && p.numBadSquares() == 0;
+        p.rollback(mark);
+        return solved;
+    }
+
+    /**
+     * Queues the dots at the ends of edge e, and every square with a corner at either end,
+     * since edge e is in the PatternTable window of each of them.
+     */
+    private void enqueueAround(int e)
+    {
+        int a = firstDot(e), b = lastDot(e);
+        enqueue(n*n + a);
+        enqueue(n*n + b);
+        // the squares touching a and b lie within rows r0..r1 and columns c0..c1
+        int r0 = Math.max(a / (n+1) - 1, 0), r1 = Math.min(b / (n+1), n-1);
+        int c0 = Math.max(a % (n+1) - 1, 0), c1 = Math.min(b % (n+1), n-1);
+        for (int r = r0; r <= r1; r++){
+            for (int c = c0; c <= c1; c++){
+                enqueue(r*n + c);
+            }
+        }
+    }
+
+    /**
+     * Adds item to the queue, unless it is already there.
+     */
+    private void enqueue(int item)
+    {
+        if (!queued[item]){
+            queued[item] = true;
+            queue[(head + length) % queue.length] = item;
+            length += 1;
+        }
+    }
+
+    /**
+     * Empties the queue.
+     */
+    private void clearQueue()
+    {
+        while (length > 0){
+            queued[queue[head]] = false;
+            head = (head + 1) % queue.length;
+            length -= 1;
+        }
+    }
+
+    /**
+     * Returns the left or top end of edge e, as the dot number r*(size+1)+c.
+     */
+    private int firstDot(int e)
+    {
+        int h = (n+1)*n;
+        if (e < h){
+            return (e / n)*(n+1) + e % n;
+        } else {
+            return e-h;
+        }
+    }
+
+    /**
+     * Returns the right or bottom end of edge e, as the dot number r*(size+1)+c.
+     */
+    private int lastDot(int e)
+    {
+        return firstDot(e) + (e < (n+1)*n ? 1 : n+1);
+    }
+
+    /**
+     * Returns edge k of Square r,c: top, right, bottom and left for k = 0 to 3.
+     */
+    private int side(int r, int c, int k)
+    {
+        if (k == 0) return horizontal(r, c);
+        else if (k == 1) return vertical(r, c+1);
+        else if (k == 2) return horizontal(r+1, c);
+        else return vertical(r, c);
+    }
+
+    /**
+     * Returns edge k at Dot r,c: right, down, left and up for k = 0 to 3; -1 for an edge off the grid.
+     */
+    private int dotEdge(int r, int c, int k)
+    {
+        if (k == 0) return horizontal(r, c);
+        else if (k == 1) return vertical(r, c);
+        else if (k == 2) return horizontal(r, c-1);
+        else return vertical(r-1, c);
+    }
+
+    /**
+     * Returns edge i of the PatternTable window around Square r,c, or -1 for an edge off the grid.
+     */
+    private int windowEdge(int r, int c, int i)
+    {
+        if (i < 4) return side(r, c, i);
+        else if (i == 4) return vertical(r-1, c);
+        else if (i == 5) return horizontal(r, c-1);
+        else if (i == 6) return vertical(r-1, c+1);
+        else if (i == 7) return horizontal(r, c+1);
+        else if (i == 8) return horizontal(r+1, c+1);
+        else if (i == 9) return vertical(r+1, c+1);
+        else if (i == 10) return vertical(r+1, c);
+        else return horizontal(r+1, c-1);
+    }
+
+    /**
+     * Returns the horizontal edge to the right of Dot r,c, or -1 if there is none.
+     */
+    private int horizontal(int r, int c)
+    {
+        return r >= 0 && r <= n && c >= 0 && c < n ? p.horizontalEdge(r, c) : -1;
+    }
+
+    /**
+     * Returns the vertical edge below Dot r,c, or -1 if there is none.
+     */
+    private int vertical(int r, int c)
+    {
+        return r >= 0 && r < n && c >= 0 && c <= n ? p.verticalEdge(r, c) : -1;
+    }
+}
@@ -0,0 +1,163 @@
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This class provides unit test cases for the Solver class.
+ * @author Jaimin Kirankumar Kerai
+ * @version 1.0
+ */
+public class SolverTest
+{
+    /**
+     * Sets up the test fixture.
+     *
+     * Called before every test case method.
+     */
+    @Before
+    public void setUp()
+    {
+    }
+
+    @Test
+    public void testSolved()
+    {
+        String[] files = {"eg2_1.txt", "eg2_3.txt", "eg3_2.txt", "eg5_1.txt", "eg7_2.txt"};
+        for (String f : files)
+        {
+            Puzzle p = new Puzzle(f);
+            Solver s = new Solver(p);
+            assertEquals(f, Solver.Result.SOLVED, s.solve());
+            assertEquals(f, 0, s.unknownEdges());
+            assertEquals(f, "Finished", AnalyzeSolution.finished(p));
+        }
+    }
+
+    @Test
+    public void testStuck()
+    {
+        // eg2_2 has two solutions, so no deduction can finish it
+        Puzzle p = new Puzzle("eg2_2.txt");
+        Solver s = new Solver(p);
+        assertEquals(Solver.Result.STUCK, s.solve());
+        assertTrue(s.unknownEdges() > 0);
+    }
+
+    @Test
+    public void testContradiction()
+    {
+        // a line along the top of eg2_3 ("3 1" over "-1 -1") gives the 1 two sides
+        Puzzle p = new Puzzle("eg2_3.txt");
+        p.horizontalClick(0,0);
+        p.horizontalClick(0,1);
+        p.verticalClick(0,1);
+        assertEquals(Solver.Result.CONTRADICTION, new Solver(p).solve());
+    }
+
+    @Test
+    public void testKeepsGivenEdges()
+    {
+        Puzzle p = new Puzzle("eg5_1.txt");
+        Solver s = new Solver(p);
+        s.solve();
+        boolean[][] h = p.getHorizontal();
+        boolean[][] v = p.getVertical();
+
+        Puzzle q = new Puzzle("eg5_1.txt");
+        for (int j = 0; j < 5; j++)
+            if (h[0][j]) q.horizontalClick(0,j);
+        assertEquals(Solver.Result.SOLVED, new Solver(q).solve());
+        for (int i = 0; i < 5; i++)
+            for (int j = 0; j <= 5; j++)
+                assertEquals(v[i][j], q.getVertical(i,j));
+    }
+
+    @Test
+    public void testSearch()
+    {
+        String[] files = {"eg2_2.txt", "eg3_1.txt", "eg3_3.txt", "eg5_2.txt", "eg7_1.txt", "eg10_1.txt", "eg10_2.txt"};
+        for (String f : files)
+        {
+            Puzzle p = new Puzzle(f);
+            Search s = new Search(p);
+            assertEquals(f, Solver.Result.SOLVED, s.solve());
+            assertEquals(f, "Finished", AnalyzeSolution.finished(p));
+            // deduction alone finishes all but eg2_2, which has to be searched
+            assertEquals(f, f.equals("eg2_2.txt"), s.getNodes() >= 1);
+        }
+    }
+
+    @Test
+    public void testSearchLimits()
+    {
+        Search s = new Search(new Puzzle("eg2_2.txt"));
+        s.setNodeLimit(0);
+        assertEquals(Solver.Result.ABORTED, s.solve());
+
+        s = new Search(new Puzzle("eg2_2.txt"));
+        s.cancel();
+        assertEquals(Solver.Result.ABORTED, s.solve());
+
+        // a time limit too large for nanoseconds is no limit, not one already past
+        for (long millis : new long[] {Long.MAX_VALUE / 1000, Long.MAX_VALUE / 1000000 + 1, Long.MAX_VALUE}){
+            s = new Search(new Puzzle("eg2_2.txt"));
+            s.setTimeLimit(millis);
+            assertEquals(Solver.Result.SOLVED, s.solve());
+        }
+
+        // two X's leave the 3 in the top right corner of eg3_1 only two sides
+        Puzzle p = new Puzzle("eg3_1.txt");
+        p.RightClickXH(0,2);
+        p.RightClickXV(0,3);
+        s = new Search(p);
+        assertEquals(Solver.Result.CONTRADICTION, s.solve());
+    }
+
+    @Test
+    public void testParallelSearch()
+    {
+        String[] files = {"eg3_1.txt", "eg5_2.txt", "eg10_1.txt", "eg10_2.txt"};
+        for (String f : files)
+        {
+            Puzzle p = new Puzzle(f);
+            ParallelSearch s = new ParallelSearch(p, 4);
+            s.setSplitDepth(3);
+            assertEquals(f, Solver.Result.SOLVED, s.solve());
+            assertEquals(f, "Finished", AnalyzeSolution.finished(p));
+        }
+
+        Puzzle p = new Puzzle("eg3_1.txt");
+        p.RightClickXH(0,2);
+        p.RightClickXV(0,3);
+        assertEquals(Solver.Result.CONTRADICTION, new ParallelSearch(p, 2).solve());
+
+        // a cancelled search can be solved again
+        p = new Puzzle("eg5_2.txt");
+        ParallelSearch s = new ParallelSearch(p, 2);
+        s.cancel();
+        assertEquals(Solver.Result.ABORTED, s.solve());
+        s.setTimeLimit(Long.MAX_VALUE / 2);
+        assertEquals(Solver.Result.SOLVED, s.solve());
+        assertEquals("Finished", AnalyzeSolution.finished(p));
+    }
+
+    @Test
+    public void testCountSolutions()
+    {
+        assertEquals(2, Search.countSolutions(new Puzzle("eg2_2.txt"), 5));
+        assertEquals(1, Search.countSolutions(new Puzzle("eg2_2.txt"), 1));
+        String[] unique = {"eg2_1.txt", "eg3_1.txt", "eg5_2.txt", "eg7_1.txt", "eg10_1.txt"};
+        for (String f : unique)
+            assertEquals(f, 1, Search.countSolutions(new Puzzle(f), 2));
+
+        // the count works on a copy, so the puzzle is unchanged
+        Puzzle p = new Puzzle("eg3_1.txt");
+        p.horizontalClick(0,2);
+        assertEquals(1, Search.countSolutions(p, 2));
+        assertEquals(1, p.numLines());
+        p.RightClickXH(0,2);
+        p.RightClickXV(0,3);
+        assertEquals(0, Search.countSolutions(p, 2));
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * TranspositionTable remembers the boards a Search has already shown to have no solution,
+ * keyed by the Puzzle's edge hash combined with its clue hash, so a table can be shared by
+ * searches of different puzzles. It has a fixed number of slots, two per bucket;
+ * when a bucket is full, the older key makes way for the new one.
+ *
+ * Only keys are stored, so two boards whose keys happen to be equal are confused;
+ * with 64-bit keys that is too unlikely to matter.
+ *
+ * A table can be shared by searches on several threads. Each key is read and written whole,
+ * so a thread never sees half of one; two threads adding to the same bucket at once may lose a key,
+ * which costs only the work of finding it again.
+ *
+ * @author Jaimin Kirankumar Kerai
+ * @version 1.0
+ */
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class TranspositionTable
+{
+    private AtomicLongArray keys; // the keys, in buckets of two slots; 0 for an empty slot
+    private int mask;             // the index of the first slot of the bucket for key k is k & mask
+    private int count;            // the number of keys in the table, roughly if it is shared
+
+    /**
+     * Creates an empty table with room for at least capacity keys, rounded up to a power of 2.
+     */
+    public TranspositionTable(int capacity)
+    {
+        int slots = Math.max(2, Integer.highestOneBit(Math.max(1, capacity - 1)) << 1);
+        keys = new AtomicLongArray(slots);
+        mask = slots - 2;
+    }
+
+    /**
+     * Returns the key of the current board of p.
+     */
+    public static long key(Puzzle p)
+    {
+        long key = p.hash() ^ p.clueHash();
+        return key == 0 ? 1 : key;
+    }
+
+    /**
+     * Returns true iff the current board of p is in the table.
+     */
+    public boolean contains(Puzzle p)
+    {
+        long key = key(p);
+        int i = (int) key & mask;
+        return keys.getOpaque(i) == key || keys.getOpaque(i+1) == key;
+    }
+
+    /**
+     * Adds the current board of p to the table.
+     */
+    public void add(Puzzle p)
+    {
+        long key = key(p);
+        int i = (int) key & mask;
+        long newer = keys.getOpaque(i), older = keys.getOpaque(i+1);
+        if (newer == key || older == key){
+            return;
+        }
+        if (older == 0) count += 1;
+        keys.setOpaque(i+1, newer);
+        keys.setOpaque(i, key);
+    }
+
+    /**
+     * Returns the number of keys in the table.
+     */
+    public int size()
+    {
+        return count;
+    }
+
+    /**
+     * Removes every key.
+     */
+    public void clear()
+    {
+        for (int i = 0; i < keys.length(); i++){
+            keys.setOpaque(i, 0L);
+        }
+        count = 0;
+    }
+}
@@ -0,0 +1,137 @@
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This class provides unit test cases for the TranspositionTable class.
+ * @author Jaimin Kirankumar Kerai
+ * @version 1.0
+ */
+public class TranspositionTableTest
+{
+    private TranspositionTable t;
+    // no solution, but the Solver alone cannot tell
+    private int[][] none = {{-1,-1,-1,-1,-1},{1,-1,-1,-1,2},{-1,-1,0,0,-1},{-1,-1,-1,-1,-1},{-1,-1,0,-1,-1}};
+
+    /**
+     * Sets up the test fixture.
+     *
+     * Called before every test case method.
+     */
+    @Before
+    public void setUp()
+    {
+        t = new TranspositionTable(8);
+    }
+
+    @Test
+    public void testAddContains()
+    {
+        Puzzle p = new Puzzle("eg3_1.txt");
+        assertFalse(t.contains(p));
+        t.add(p);
+        t.add(p);
+        assertTrue(t.contains(p));
+        assertEquals(1, t.size());
+
+        p.horizontalClick(0,0);
+        assertFalse(t.contains(p));
+        p.horizontalClick(0,0);
+        assertTrue(t.contains(p));
+
+        // the same board of a puzzle with other numbers is a different key
+        p.setNumber(1,1,2);
+        assertFalse(t.contains(p));
+
+        t.clear();
+        assertEquals(0, t.size());
+    }
+
+    @Test
+    public void testFull()
+    {
+        Puzzle p = new Puzzle("eg3_1.txt");
+        for (int c = 0; c < 3; c++){
+            for (int r = 0; r < 4; r++){
+                p.horizontalClick(r,c);
+                t.add(p);
+            }
+        }
+        // twelve boards in eight slots: the oldest have made way, the newest is kept
+        assertEquals(8, t.size());
+        assertTrue(t.contains(p));
+    }
+
+    @Test
+    public void testSearchRetry()
+    {
+        Puzzle p = new Puzzle(none);
+        Search plain = new Search(new Puzzle(p));
+        assertEquals(Solver.Result.CONTRADICTION, plain.solve());
+        long nodes = plain.getNodes();
+
+        TranspositionTable table = new TranspositionTable(1024);
+        Search first = new Search(new Puzzle(p));
+        first.setTable(table);
+        first.setNodeLimit(nodes / 2);
+        assertEquals(Solver.Result.ABORTED, first.solve());
+        assertTrue(table.size() > 0);
+
+        // the retry skips the subtrees the first search finished
+        Search retry = new Search(new Puzzle(p));
+        retry.setTable(table);
+        assertEquals(Solver.Result.CONTRADICTION, retry.solve());
+        assertTrue(retry.getNodes() < nodes);
+
+        Search again = new Search(new Puzzle(p));
+        again.setTable(table);
+        assertEquals(Solver.Result.CONTRADICTION, again.solve());
+        assertEquals(1, again.getNodes());
+    }
+
+    @Test
+    public void testParallelRetry()
+    {
+        Puzzle p = new Puzzle(none);
+        ParallelSearch s = new ParallelSearch(p, 2);
+        s.setSplitDepth(2);
+        assertEquals(Solver.Result.CONTRADICTION, s.solve());
+        long nodes = s.getNodes();
+        assertTrue(nodes > 1);
+
+        // solving again meets the root in the table the first solve left
+        assertEquals(Solver.Result.CONTRADICTION, s.solve());
+        assertEquals(1, s.getNodes());
+    }
+
+    @Test
+    public void testGeneratorTables()
+    {
+        // with a small node limit many checks need a second try, which the table makes cheaper
+        long[] nodes = new long[2];
+        for (int i = 0; i < 2; i++){
+            Generator g = new Generator(7, 0.3);
+            g.setNodeLimit(50);
+            g.setTables(i == 1);
+            for (long seed = 0; seed < 5; seed++)
+                assertEquals(1, Search.countSolutions(g.generate(seed), 2));
+            nodes[i] = g.getNodes();
+        }
+        assertTrue(nodes[1] + " of " + nodes[0], nodes[1] < nodes[0]);
+    }
+
+    @Test
+    public void testSolvedWithTable()
+    {
+        // a board that leads to a solution is never recorded
+        TranspositionTable table = new TranspositionTable(1024);
+        for (int i = 0; i < 2; i++){
+            Puzzle p = new Puzzle("eg3_1.txt");
+            Search s = new Search(p);
+            s.setTable(table);
+            assertEquals(Solver.Result.SOLVED, s.solve());
+            assertEquals("Finished", AnalyzeSolution.finished(p));
+        }
+    }
+}